@@ -1,16 +1,35 @@
 package com.truelanz.catalog.config;
 
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 
 //Classe para criptografar senha com encode()
 @Configuration
 public class AppConfig {
-    
+
+    @Value("${security.password.encoder}")
+    private String encoderId;
+
+    @Value("${security.password.bcrypt-strength}")
+    private int bcryptStrength;
+
+    //Hash com prefixo do algoritmo ({bcrypt}, {pbkdf2}); hashes antigos sem prefixo são BCrypt.
+    //No login, senha com algoritmo ou custo diferente do configurado é regravada (upgradeEncoding)
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+            "bcrypt", bcrypt,
+            "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encoderId, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 }
@@ -1,28 +1,32 @@
 package com.truelanz.catalog.config;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationConsentService;
-import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
@@ -44,17 +48,27 @@ import org.springframework.security.oauth2.server.authorization.token.OAuth2Toke
 import org.springframework.security.web.SecurityFilterChain;
 
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.truelanz.catalog.config.authorization.CachingJwtDecoder;
+import com.truelanz.catalog.config.authorization.CaffeineOAuth2AuthorizationService;
+import com.truelanz.catalog.config.authorization.DenylistJwtValidator;
+import com.truelanz.catalog.config.authorization.LoginThrottle;
+import com.truelanz.catalog.config.authorization.PasswordVerifier;
+import com.truelanz.catalog.config.authorization.RotatingJwkSource;
+import com.truelanz.catalog.config.authorization.TokenDenylist;
+import com.truelanz.catalog.config.authorization.TokenEndpointErrorHandler;
 import com.truelanz.catalog.config.customgrant.CustomPasswordAuthenticationConverter;
 import com.truelanz.catalog.config.customgrant.CustomPasswordAuthenticationProvider;
 import com.truelanz.catalog.config.customgrant.CustomUserAuthorities;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class AuthorizationServerConfig {
 
+	private static final String STATELESS = "none";
+
 	@Value("${security.client-id}")
 	private String clientId;
 
@@ -64,12 +78,66 @@ public class AuthorizationServerConfig {
 	@Value("${security.jwt.duration}")
 	private Integer jwtDurationSeconds;
 
+	@Value("${security.authorization-store}")
+	private String authorizationStore;
+
+	@Value("${security.authorization-store.max-size}")
+	private long authorizationStoreMaxSize;
+
+	@Value("${security.token-denylist.enabled}")
+	private boolean tokenDenylistEnabled;
+
+	@Value("${security.token-denylist.max-size}")
+	private long tokenDenylistMaxSize;
+
+	@Value("${security.jwt.decoder-cache.enabled}")
+	private boolean jwtDecoderCacheEnabled;
+
+	@Value("${security.jwt.decoder-cache.max-size}")
+	private long jwtDecoderCacheMaxSize;
+
+	@Value("${security.password.verification.threads}")
+	private int passwordVerificationThreads;
+
+	@Value("${security.password.verification.queue-capacity}")
+	private int passwordVerificationQueueCapacity;
+
+	@Value("${security.password.verification.timeout}")
+	private Duration passwordVerificationTimeout;
+
+	@Value("${security.login.throttle.max-account-failures}")
+	private int loginMaxAccountFailures;
+
+	@Value("${security.login.throttle.max-address-failures}")
+	private int loginMaxAddressFailures;
+
+	@Value("${security.login.throttle.window}")
+	private Duration loginThrottleWindow;
+
+	@Value("${security.jwk.file}")
+	private String jwkFile;
+
+	@Value("${security.jwk.algorithm}")
+	private String jwkAlgorithm;
+
+	@Value("${security.jwk.rotation-interval}")
+	private Duration jwkRotationInterval;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
 	@Autowired
 	private UserDetailsService userDetailsService;
 
+	@Autowired
+	private UserDetailsPasswordService userDetailsPasswordService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@Bean
 	@Order(2)
 	public SecurityFilterChain asSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -80,7 +148,9 @@ public class AuthorizationServerConfig {
 		http.getConfigurer(OAuth2AuthorizationServerConfigurer.class)
 			.tokenEndpoint(tokenEndpoint -> tokenEndpoint
 				.accessTokenRequestConverter(new CustomPasswordAuthenticationConverter())
-				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder)));
+				.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder,
+					!STATELESS.equals(authorizationStore), passwordVerifier(), loginThrottle(), userDetailsPasswordService, meterRegistry))
+				.errorResponseHandler(new TokenEndpointErrorHandler()));
 
 		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
 		// @formatter:on
@@ -88,9 +158,33 @@ public class AuthorizationServerConfig {
 		return http.build();
 	}
 
+	// threads=0: metade dos núcleos; o restante fica livre para as requisições do catálogo
+	@Bean
+	public PasswordVerifier passwordVerifier() {
+		int threads = passwordVerificationThreads > 0
+			? passwordVerificationThreads
+			: Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		return new PasswordVerifier(passwordEncoder, threads, passwordVerificationQueueCapacity, passwordVerificationTimeout, meterRegistry);
+	}
+
+	@Bean
+	public LoginThrottle loginThrottle() {
+		return new LoginThrottle(loginMaxAccountFailures, loginMaxAddressFailures, loginThrottleWindow, 100_000);
+	}
+
+	// memory: limitado e com expiração junto dos tokens; jdbc: tabela oauth2_authorization (db/postgresql/oauth2-authorization.sql)
+	// none: modo stateless, o password grant não grava autorização (o store em memória fica só para os endpoints padrão)
 	@Bean
 	public OAuth2AuthorizationService authorizationService() {
-		return new InMemoryOAuth2AuthorizationService();
+		switch (authorizationStore) {
+			case "memory":
+			case STATELESS:
+				return new CaffeineOAuth2AuthorizationService(authorizationStoreMaxSize, Duration.ofSeconds(jwtDurationSeconds));
+			case "jdbc":
+				return new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository());
+			default:
+				throw new IllegalStateException("Invalid security.authorization-store: " + authorizationStore);
+		}
 	}
 
 	@Bean
@@ -101,8 +195,9 @@ public class AuthorizationServerConfig {
 	@Bean
 	public RegisteredClientRepository registeredClientRepository() {
 		// @formatter:off
+		// id fixo: autorizações gravadas no banco continuam válidas após reiniciar
 		RegisteredClient registeredClient = RegisteredClient
-			.withId(UUID.randomUUID().toString())
+			.withId(clientId)
 			.clientId(clientId)
 			.clientSecret(passwordEncoder.encode(clientSecret))
 			.scope("read")
@@ -150,10 +245,14 @@ public class AuthorizationServerConfig {
 		return context -> {
 			OAuth2ClientAuthenticationToken principal = context.getPrincipal();
 			CustomUserAuthorities user = (CustomUserAuthorities) principal.getDetails();
-			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
+			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).collect(Collectors.toList());
 			if (context.getTokenType().getValue().equals("access_token")) {
 				// @formatter:off
+				context.getJwsHeader()
+					.algorithm(SignatureAlgorithm.from(jwkSource().getAlgorithm().getName()))
+					.keyId(jwkSource().currentKeyId());
 				context.getClaims()
+					.id(UUID.randomUUID().toString()) // jti: chave do TokenDenylist no logout
 					.claim("authorities", authorities)
 					.claim("username", user.getUsername());
 				// @formatter:on
@@ -163,32 +262,25 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
-		return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+		NimbusJwtDecoder jwtDecoder = (NimbusJwtDecoder) OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+		jwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(), new DenylistJwtValidator(tokenDenylist())));
+		if (!jwtDecoderCacheEnabled) {
+			return jwtDecoder;
+		}
+		return new CachingJwtDecoder(jwtDecoder, tokenDenylist(), jwtDecoderCacheMaxSize);
 	}
 
+	// Revogação de JWTs (POST /auth/logout) sem estado de autorização: somente jti e exp, em memória por instância
 	@Bean
-	public JWKSource<SecurityContext> jwkSource() {
-		RSAKey rsaKey = generateRsa();
-		JWKSet jwkSet = new JWKSet(rsaKey);
-		return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
+	public TokenDenylist tokenDenylist() {
+		return new TokenDenylist(tokenDenylistEnabled, tokenDenylistMaxSize);
 	}
 
-	private static RSAKey generateRsa() {
-		KeyPair keyPair = generateRsaKey();
-		RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-		RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-		return new RSAKey.Builder(publicKey).privateKey(privateKey).keyID(UUID.randomUUID().toString()).build();
-	}
-
-	private static KeyPair generateRsaKey() {
-		KeyPair keyPair;
-		try {
-			KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-			keyPairGenerator.initialize(2048);
-			keyPair = keyPairGenerator.generateKeyPair();
-		} catch (Exception ex) {
-			throw new IllegalStateException(ex);
-		}
-		return keyPair;
+	// security.jwk.file vazio: chaves só em memória (novas a cada inicialização, uma instância só)
+	// Arquivo: mesmo JWK Set para todas as instâncias, rotacionado a cada security.jwk.rotation-interval
+	@Bean
+	public RotatingJwkSource jwkSource() {
+		Path file = jwkFile.isBlank() ? null : Path.of(jwkFile);
+		return new RotatingJwkSource(jwkAlgorithm, file, jwkRotationInterval, Duration.ofSeconds(jwtDurationSeconds));
 	}
 }
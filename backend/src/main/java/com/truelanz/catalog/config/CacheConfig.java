@@ -0,0 +1,70 @@
+package com.truelanz.catalog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.authentication.CachingUserDetailsService;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.truelanz.catalog.services.UserService;
+
+//Cache de leitura (Spring Cache): Caffeine em memória, cada cache com seu limite e TTL
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+    public static final String USERS = "users";
+
+    @Value("${cache.enabled}")
+    private boolean enabled;
+
+    @Value("${cache.products.spec}")
+    private String productsSpec;
+
+    @Value("${cache.categories.spec}")
+    private String categoriesSpec;
+
+    @Value("${cache.users.spec}")
+    private String usersSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        if (!enabled) {
+            return new NoOpCacheManager();
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PRODUCTS, Caffeine.from(productsSpec).build());
+        cacheManager.registerCustomCache(CATEGORIES, Caffeine.from(categoriesSpec).build());
+        cacheManager.registerCustomCache(USERS, Caffeine.from(usersSpec).build());
+        cacheManager.setAllowNullValues(false);
+
+        //put/evict só depois do commit: rollback não deixa valor no cache e leitura concorrente não vê dado antigo
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    //Usuários (dados, senha + roles) por email, usado no login e em GET /users/me; removido ao alterar usuário, senha ou roles
+    @Bean
+    public UserCache userCache(CacheManager cacheManager) {
+        return new SpringCacheBasedUserCache(cacheManager.getCache(USERS));
+    }
+
+    //UserDetailsService usado pelo servidor de autorização: consulta o cache antes da query de usuário + roles
+    @Bean
+    @Primary
+    public UserDetailsService cachingUserDetailsService(UserService userService, UserCache userCache) {
+        CachingUserDetailsService service = new CachingUserDetailsService(userService);
+        service.setUserCache(userCache);
+        return service;
+    }
+}
@@ -0,0 +1,51 @@
+package com.truelanz.catalog.config;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+//Métricas Micrometer expostas em /actuator/prometheus. Tags só com valores de um conjunto fixo
+//(etapa, operação, resultado, método do repositório): nunca id, email, nome buscado ou URI crua
+@Configuration
+public class MetricsConfig {
+
+    //Etapas da busca de produtos (ProductService/ProductRepositoryImpl), tag stage
+    public static final String PRODUCT_SEARCH = "catalog.product.search";
+    //Emissão de token no grant password, tag outcome (success ou código do erro OAuth2)
+    public static final String TOKEN_ISSUE = "catalog.token.issue";
+    //Hash de senha no pool do PasswordVerifier, tag operation (matches/encode)
+    public static final String PASSWORD_HASH = "catalog.password.hash";
+    //Envio de um lote do outbox na mesma conexão SMTP, tag outcome; catalog.email.messages conta por mensagem
+    public static final String EMAIL_SEND = "catalog.email.send";
+    public static final String EMAIL_MESSAGES = "catalog.email.messages";
+
+    private static final String REPOSITORY_INVOCATIONS = "spring.data.repository.invocations";
+
+    @Value("${spring.application.name:catalog}")
+    private String applicationName;
+
+    @Value("${metrics.max-repository-methods}")
+    private int maxRepositoryMethods;
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> commonTags() {
+        return registry -> registry.config().commonTags("application", applicationName);
+    }
+
+    //Limite de séries do timer dos repositórios: métodos além do limite são descartados (não derrubam o Prometheus)
+    @Bean
+    public MeterFilter repositoryMethodsLimit() {
+        return MeterFilter.maximumAllowableTags(REPOSITORY_INVOCATIONS, "method", maxRepositoryMethods, MeterFilter.deny());
+    }
+
+    public static <T> T timeStage(MeterRegistry registry, String stage, Supplier<T> supplier) {
+        return Timer.builder(PRODUCT_SEARCH).tag("stage", stage).register(registry).record(supplier);
+    }
+}
@@ -3,6 +3,8 @@ package com.truelanz.catalog.config;
 import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -40,8 +42,21 @@ public class ResourceServerConfig {
 		return http.build();
 	}
 
+	//Actuator: health público, o restante (métricas expõem falhas de login, emails, repositórios, pools) só para ADMIN
 	@Bean
 	@Order(3)
+	public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+
+		http.securityMatcher(EndpointRequest.toAnyEndpoint()).csrf(csrf -> csrf.disable());
+		http.authorizeHttpRequests(authorize -> authorize
+				.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+				.anyRequest().hasRole("ADMIN"));
+		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
+		return http.build();
+	}
+
+	@Bean
+	@Order(4)
 	public SecurityFilterChain rsSecurityFilterChain(HttpSecurity http) throws Exception {
 
 		http.csrf(csrf -> csrf.disable());
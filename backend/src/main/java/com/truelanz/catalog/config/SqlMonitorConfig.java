@@ -0,0 +1,62 @@
+package com.truelanz.catalog.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.truelanz.catalog.config.sql.SqlRequestMonitorFilter;
+import com.truelanz.catalog.config.sql.SqlStatementListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+//Monitor de SQL: o DataSource passa por um proxy que conta os comandos por requisição (N+1) e registra os lentos.
+//Nos testes use SqlStatistics.start()/stop() (ou tests/SqlAssertions) para verificar quantos comandos um trecho executa
+@Configuration
+@ConditionalOnProperty(name = "sql.monitor.enabled", havingValue = "true")
+public class SqlMonitorConfig {
+
+    @Value("${sql.monitor.max-statements-per-request}")
+    private int maxStatementsPerRequest;
+
+    @Value("${sql.monitor.max-repeated-statements}")
+    private int maxRepeatedStatements;
+
+    @Value("${sql.monitor.fail-on-threshold}")
+    private boolean failOnThreshold;
+
+    //static: post-processor precisa existir antes do DataSource, sem depender da instância desta configuração
+    @Bean
+    public static BeanPostProcessor sqlMonitorDataSourceProxy(@Value("${sql.monitor.slow-threshold}") Duration slowThreshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new SqlStatementListener(slowThreshold))
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    //Logo depois do CORS: conta também o SQL do Spring Security e do endpoint de token
+    @Bean
+    public FilterRegistrationBean<SqlRequestMonitorFilter> sqlRequestMonitorFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlRequestMonitorFilter> registration = new FilterRegistrationBean<>(
+            new SqlRequestMonitorFilter(maxStatementsPerRequest, maxRepeatedStatements, failOnThreshold, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
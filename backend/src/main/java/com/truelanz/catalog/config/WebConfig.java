@@ -0,0 +1,37 @@
+package com.truelanz.catalog.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.ConverterFactory;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    //Páginas de busca (GET /products): ETag pelo hash da resposta, 304 poupa a transferência para clientes que fazem polling
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> searchEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/products");
+        return registration;
+    }
+
+    //Enums em @RequestParam aceitos em minúsculas (count=none, format=csv); valor inválido -> 400 Bad Request
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverterFactory(new StringToEnumIgnoringCase());
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static class StringToEnumIgnoringCase implements ConverterFactory<String, Enum> {
+
+        @Override
+        public <T extends Enum> Converter<String, T> getConverter(Class<T> targetType) {
+            return source -> (T) Enum.valueOf(targetType, source.trim().toUpperCase());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+//JWTs já verificados (assinatura + validadores) por hash do token, até o exp: o mesmo token não é verificado de novo
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final TokenDenylist tokenDenylist;
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, TokenDenylist tokenDenylist, long maximumSize) {
+        this.delegate = delegate;
+        this.tokenDenylist = tokenDenylist;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new Expiry<String, Jwt>() {
+                @Override
+                public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                    Instant expiresAt = jwt.getExpiresAt();
+                    return expiresAt == null ? 0 : Math.max(Duration.between(Instant.now(), expiresAt).toNanos(), 0);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    }
+
+    //Token inválido não entra no cache: a exceção do delegate sobe antes do put
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt jwt = cache.get(key, k -> delegate.decode(token));
+        if (tokenDenylist.isRevoked(jwt.getId())) { //Revogado depois de entrar no cache
+            cache.invalidate(key);
+            throw new BadJwtException("The token has been revoked");
+        }
+        return jwt;
+    }
+
+    public Cache<String, Jwt> getCache() {
+        return cache;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
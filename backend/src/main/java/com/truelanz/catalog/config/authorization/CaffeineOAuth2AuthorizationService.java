@@ -0,0 +1,168 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.endpoint.OidcParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+//Autorizações em memória com limite de entradas; cada uma expira junto com o último token que ela contém
+public class CaffeineOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+    private final Cache<String, OAuth2Authorization> authorizations;
+    private final Cache<String, String> tokens; //valor do token (ou state) -> id da autorização
+    private final Duration defaultTimeToLive;
+
+    public CaffeineOAuth2AuthorizationService(long maximumSize, Duration defaultTimeToLive) {
+        Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+        Assert.notNull(defaultTimeToLive, "defaultTimeToLive cannot be null");
+        this.defaultTimeToLive = defaultTimeToLive;
+        this.authorizations = build(maximumSize);
+        this.tokens = build(maximumSize * 2);
+    }
+
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        Assert.notNull(authorization, "authorization cannot be null");
+        OAuth2Authorization previous = authorizations.getIfPresent(authorization.getId());
+        if (previous != null) {
+            tokens.invalidateAll(tokenValues(previous));
+        }
+        Duration timeToLive = timeToLive(authorization);
+        if (timeToLive.isZero() || timeToLive.isNegative()) {
+            authorizations.invalidate(authorization.getId());
+            return;
+        }
+        authorizations.policy().expireVariably().orElseThrow().put(authorization.getId(), authorization, timeToLive);
+        tokenValues(authorization).forEach(value ->
+            tokens.policy().expireVariably().orElseThrow().put(value, authorization.getId(), timeToLive));
+    }
+
+    @Override
+    public void remove(OAuth2Authorization authorization) {
+        Assert.notNull(authorization, "authorization cannot be null");
+        authorizations.invalidate(authorization.getId());
+        tokens.invalidateAll(tokenValues(authorization));
+    }
+
+    @Override
+    public OAuth2Authorization findById(String id) {
+        Assert.hasText(id, "id cannot be empty");
+        return authorizations.getIfPresent(id);
+    }
+
+    @Override
+    public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+        Assert.hasText(token, "token cannot be empty");
+        String id = tokens.getIfPresent(token);
+        if (id == null) {
+            return null;
+        }
+        OAuth2Authorization authorization = authorizations.getIfPresent(id);
+        return authorization != null && hasToken(authorization, token, tokenType) ? authorization : null;
+    }
+
+    public long size() {
+        return authorizations.estimatedSize();
+    }
+
+    //Mesmas regras de correspondência do InMemoryOAuth2AuthorizationService
+    private static boolean hasToken(OAuth2Authorization authorization, String token, OAuth2TokenType tokenType) {
+        if (tokenType == null) {
+            return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE))
+                || tokenValues(authorization).contains(token);
+        }
+        if (OAuth2ParameterNames.STATE.equals(tokenType.getValue())) {
+            return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE));
+        }
+        if (OAuth2ParameterNames.CODE.equals(tokenType.getValue())) {
+            return matches(authorization.getToken(OAuth2AuthorizationCode.class), token);
+        }
+        if (OAuth2TokenType.ACCESS_TOKEN.equals(tokenType)) {
+            return matches(authorization.getToken(OAuth2AccessToken.class), token);
+        }
+        if (OAuth2TokenType.REFRESH_TOKEN.equals(tokenType)) {
+            return matches(authorization.getToken(OAuth2RefreshToken.class), token);
+        }
+        if (OidcParameterNames.ID_TOKEN.equals(tokenType.getValue())) {
+            return matches(authorization.getToken(OidcIdToken.class), token);
+        }
+        return false;
+    }
+
+    private static boolean matches(OAuth2Authorization.Token<?> token, String value) {
+        return token != null && token.getToken().getTokenValue().equals(value);
+    }
+
+    private static List<String> tokenValues(OAuth2Authorization authorization) {
+        List<String> values = new ArrayList<>();
+        String state = authorization.getAttribute(OAuth2ParameterNames.STATE);
+        if (state != null) {
+            values.add(state);
+        }
+        tokens(authorization)
+            .map(token -> token.getToken().getTokenValue())
+            .forEach(values::add);
+        return values;
+    }
+
+    private static Stream<OAuth2Authorization.Token<? extends OAuth2Token>> tokens(OAuth2Authorization authorization) {
+        return Stream.<OAuth2Authorization.Token<? extends OAuth2Token>>of(
+                authorization.getToken(OAuth2AuthorizationCode.class),
+                authorization.getToken(OAuth2AccessToken.class),
+                authorization.getToken(OAuth2RefreshToken.class),
+                authorization.getToken(OidcIdToken.class))
+            .filter(Objects::nonNull);
+    }
+
+    //Até a expiração mais distante entre os tokens; sem tokens com expiração (ex.: fluxo em andamento), o TTL padrão
+    private Duration timeToLive(OAuth2Authorization authorization) {
+        return tokens(authorization)
+            .map(token -> token.getToken().getExpiresAt())
+            .filter(Objects::nonNull)
+            .max(Instant::compareTo)
+            .map(expiresAt -> Duration.between(Instant.now(), expiresAt))
+            .orElse(defaultTimeToLive);
+    }
+
+    //Expiração definida a cada put (expireVariably); leituras não renovam o prazo
+    private <K, V> Cache<K, V> build(long maximumSize) {
+        long defaultNanos = defaultTimeToLive.toNanos();
+        return Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new Expiry<K, V>() {
+                @Override
+                public long expireAfterCreate(K key, V value, long currentTime) {
+                    return defaultNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+}
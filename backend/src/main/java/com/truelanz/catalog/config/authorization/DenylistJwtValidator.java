@@ -0,0 +1,26 @@
+package com.truelanz.catalog.config.authorization;
+
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+//Rejeita no resource server os JWTs cujo jti está no TokenDenylist
+public class DenylistJwtValidator implements OAuth2TokenValidator<Jwt> {
+
+    private static final OAuth2Error REVOKED = new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "The token has been revoked", null);
+
+    private final TokenDenylist tokenDenylist;
+
+    public DenylistJwtValidator(TokenDenylist tokenDenylist) {
+        this.tokenDenylist = tokenDenylist;
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        return tokenDenylist.isRevoked(jwt.getId())
+            ? OAuth2TokenValidatorResult.failure(REVOKED)
+            : OAuth2TokenValidatorResult.success();
+    }
+}
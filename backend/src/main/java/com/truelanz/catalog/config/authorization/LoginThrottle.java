@@ -0,0 +1,73 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+//Falhas de login por conta e por IP em janela fixa (contada da primeira falha); checado antes de calcular o hash
+public class LoginThrottle {
+
+    private final int maxAccountFailures;
+    private final int maxAddressFailures;
+    private final Duration window;
+    private final Cache<String, AtomicInteger> accountFailures;
+    private final Cache<String, AtomicInteger> addressFailures;
+
+    public LoginThrottle(int maxAccountFailures, int maxAddressFailures, Duration window, long maximumSize) {
+        this.maxAccountFailures = maxAccountFailures;
+        this.maxAddressFailures = maxAddressFailures;
+        this.window = window;
+        this.accountFailures = build(window, maximumSize);
+        this.addressFailures = build(window, maximumSize);
+    }
+
+    public void checkAllowed(String username, String address) {
+        long retryAfter = Math.max(retryAfter(accountFailures, key(username), maxAccountFailures),
+            retryAfter(addressFailures, address, maxAddressFailures));
+        if (retryAfter > 0) {
+            throw new LoginThrottledException(retryAfter);
+        }
+    }
+
+    public void failed(String username, String address) {
+        accountFailures.get(key(username), k -> new AtomicInteger()).incrementAndGet();
+        if (address != null) {
+            addressFailures.get(address, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    //Sucesso zera somente a conta: um IP com muitas falhas continua bloqueado
+    public void succeeded(String username) {
+        accountFailures.invalidate(key(username));
+    }
+
+    //Segundos até a janela da chave acabar, ou 0 quando ainda abaixo do limite
+    private long retryAfter(Cache<String, AtomicInteger> failures, String key, int max) {
+        if (key == null) {
+            return 0;
+        }
+        AtomicInteger count = failures.getIfPresent(key);
+        if (count == null || count.get() < max) {
+            return 0;
+        }
+        Duration age = failures.policy().expireAfterWrite()
+            .flatMap(expiration -> expiration.ageOf(key))
+            .orElse(Duration.ZERO);
+        return Math.max(window.minus(age).toSeconds(), 1);
+    }
+
+    private static String key(String username) {
+        return username == null ? null : username.trim().toLowerCase();
+    }
+
+    //expireAfterWrite: o incremento é leitura + AtomicInteger, então a janela não é renovada a cada falha
+    private static Cache<String, AtomicInteger> build(Duration window, long maximumSize) {
+        return Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(window.toNanos(), TimeUnit.NANOSECONDS)
+            .build();
+    }
+}
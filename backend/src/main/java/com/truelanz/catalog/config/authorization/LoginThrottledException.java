@@ -0,0 +1,23 @@
+package com.truelanz.catalog.config.authorization;
+
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+
+//Login bloqueado pelo LoginThrottle: 429 com Retry-After no endpoint de token
+public class LoginThrottledException extends OAuth2AuthenticationException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String TOO_MANY_REQUESTS = "too_many_requests";
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super(new OAuth2Error(TOO_MANY_REQUESTS, "Too many failed login attempts, retry later", null));
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
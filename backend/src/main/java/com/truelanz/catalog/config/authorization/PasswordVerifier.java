@@ -0,0 +1,109 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+
+import com.truelanz.catalog.config.MetricsConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+//Hash de senha (matches/encode) em um pool fixo com fila limitada: rajadas de login não ocupam todos os núcleos.
+//Pool e fila cheios, ou espera maior que o timeout: temporarily_unavailable (503) em vez de enfileirar sem limite.
+//Métricas: tempo do hash em si (sem a fila), pool/fila (executor.*{name=password-verifier}) e recusas por motivo
+public class PasswordVerifier {
+
+    private static final OAuth2Error BUSY = new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE,
+        "Login is busy, retry later", null);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder, int threads, int queueCapacity, Duration timeout) {
+        this(passwordEncoder, threads, queueCapacity, timeout, Metrics.globalRegistry);
+    }
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder, int threads, int queueCapacity, Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-verifier-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        this.matchesTimer = Timer.builder(MetricsConfig.PASSWORD_HASH).tag("operation", "matches").register(meterRegistry);
+        this.encodeTimer = Timer.builder(MetricsConfig.PASSWORD_HASH).tag("operation", "encode").register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("catalog.password.rejected").tag("reason", "queue_full").register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("catalog.password.rejected").tag("reason", "timeout").register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "password-verifier", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> matchesTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            throw new OAuth2AuthenticationException(BUSY);
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            rejectedTimeout.increment();
+            future.cancel(true);
+            throw new OAuth2AuthenticationException(BUSY);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new OAuth2AuthenticationException(BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.JWKGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+//Chaves de assinatura dos JWTs em um arquivo JWK Set compartilhado pelas instâncias, com rotação:
+//a chave mais nova assina, as anteriores continuam verificando até os tokens assinados por elas expirarem
+public class RotatingJwkSource implements JWKSource<SecurityContext> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RotatingJwkSource.class);
+
+    //kid desconhecido recarrega o arquivo no máximo uma vez por intervalo (kid falso não vira I/O por requisição)
+    private static final Duration UNKNOWN_KEY_RELOAD_INTERVAL = Duration.ofSeconds(1);
+
+    private final JWSAlgorithm algorithm;
+    private final Path file; //null: somente em memória, chaves novas a cada inicialização
+    private final Duration rotationInterval;
+    private final Duration retention;
+    private final long unknownKeyReloadNanos;
+    private final AtomicLong nextUnknownKeyReload = new AtomicLong(System.nanoTime());
+    private volatile JWKSet jwkSet = new JWKSet();
+    private volatile Instant loadedModified = Instant.EPOCH;
+
+    public RotatingJwkSource(String algorithm, Path file, Duration rotationInterval, Duration retention) {
+        this(algorithm, file, rotationInterval, retention, UNKNOWN_KEY_RELOAD_INTERVAL);
+    }
+
+    public RotatingJwkSource(String algorithm, Path file, Duration rotationInterval, Duration retention,
+            Duration unknownKeyReloadInterval) {
+        this.algorithm = JWSAlgorithm.parse(algorithm);
+        if (!JWSAlgorithm.RS256.equals(this.algorithm) && !JWSAlgorithm.ES256.equals(this.algorithm)) {
+            throw new IllegalStateException("Invalid security.jwk.algorithm: " + algorithm + " (RS256 or ES256)");
+        }
+        this.file = file == null ? null : file.toAbsolutePath();
+        this.rotationInterval = rotationInterval;
+        this.retention = retention;
+        this.unknownKeyReloadNanos = unknownKeyReloadInterval.toNanos();
+        refresh();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> keys = jwkSelector.select(jwkSet);
+        if (keys.isEmpty() && file != null && reserveUnknownKeyReload()) {
+            reloadIfModified(); //kid desconhecido: outra instância pode ter rotacionado a chave
+            keys = jwkSelector.select(jwkSet);
+        }
+        return keys;
+    }
+
+    //Sem lock: só a thread que ganha o CAS recarrega; as demais respondem com o JWK set atual
+    private boolean reserveUnknownKeyReload() {
+        long now = System.nanoTime();
+        long next = nextUnknownKeyReload.get();
+        return now - next >= 0 && nextUnknownKeyReload.compareAndSet(next, now + unknownKeyReloadNanos);
+    }
+
+    public JWSAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    //kid da chave de assinatura atual, enviado no header do JWT (o encoder exige uma única chave por algoritmo)
+    public String currentKeyId() {
+        return signingKey(jwkSet.getKeys()).getKeyID();
+    }
+
+    public List<JWK> getKeys() {
+        return jwkSet.getKeys();
+    }
+
+    //Recarrega o arquivo, gera chave nova se a atual venceu e remove as que não verificam mais nenhum token válido
+    public synchronized void refresh() {
+        if (file == null) {
+            rotate();
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    FileLock lock = channel.lock()) {
+                reloadIfModified();
+                if (rotate()) {
+                    write();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to refresh JWK set " + file, e);
+        }
+    }
+
+    private synchronized void reloadIfModified() {
+        try {
+            if (!Files.exists(file)) {
+                return;
+            }
+            Instant modified = Files.getLastModifiedTime(file).toInstant();
+            if (!modified.isAfter(loadedModified)) {
+                return;
+            }
+            jwkSet = JWKSet.parse(Files.readString(file, StandardCharsets.UTF_8));
+            loadedModified = modified;
+            logger.info("JWK set loaded from {}: {} key(s)", file, jwkSet.getKeys().size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read JWK set " + file, e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JWK set " + file, e);
+        }
+    }
+
+    private boolean rotate() {
+        Instant now = Instant.now();
+        List<JWK> keys = new ArrayList<>(jwkSet.getKeys());
+        keys.sort(Comparator.comparing(RotatingJwkSource::issuedAt).reversed());
+        boolean changed = false;
+
+        JWK current = signingKey(keys);
+        if (current == null || issuedAt(current).plus(rotationInterval).isBefore(now)) {
+            current = generate(now);
+            keys.add(0, current);
+            changed = true;
+            logger.info("New signing key {} ({})", current.getKeyID(), algorithm);
+        }
+
+        //Chave aposentada quando a seguinte (mais nova) foi criada; some depois de retention (duração do JWT)
+        for (int i = keys.size() - 1; i > 0; i--) {
+            JWK key = keys.get(i);
+            if (key != current && issuedAt(keys.get(i - 1)).plus(retention).isBefore(now)) {
+                keys.remove(i);
+                changed = true;
+                logger.info("Key {} removed from the JWK set", key.getKeyID());
+            }
+        }
+
+        if (changed) {
+            jwkSet = new JWKSet(keys);
+        }
+        return changed;
+    }
+
+    //Arquivo temporário + move atômico: as outras instâncias nunca leem um arquivo pela metade
+    private void write() throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            //Sistema de arquivos sem permissões POSIX (Windows)
+        }
+        Files.writeString(temp, jwkSet.toString(false), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        loadedModified = Files.getLastModifiedTime(file).toInstant();
+    }
+
+    private JWK signingKey(List<JWK> keys) {
+        return keys.stream()
+            .filter(key -> algorithm.equals(key.getAlgorithm()) && key.isPrivate())
+            .max(Comparator.comparing(RotatingJwkSource::issuedAt))
+            .orElse(null);
+    }
+
+    private JWK generate(Instant now) {
+        JWKGenerator<? extends JWK> generator = JWSAlgorithm.ES256.equals(algorithm)
+            ? new ECKeyGenerator(Curve.P_256)
+            : new RSAKeyGenerator(2048);
+        try {
+            return generator
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(algorithm)
+                .keyID(UUID.randomUUID().toString())
+                .issueTime(Date.from(now))
+                .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //Chave sem iat (arquivo escrito à mão) conta como a mais antiga
+    private static Instant issuedAt(JWK key) {
+        return key.getIssueTime() == null ? Instant.EPOCH : key.getIssueTime().toInstant();
+    }
+}
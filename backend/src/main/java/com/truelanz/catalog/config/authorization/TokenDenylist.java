@@ -0,0 +1,69 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+//jti de tokens revogados (logout) até o exp do token; depois disso o próprio JWT já é rejeitado.
+//Sem despejo por tamanho: tirar um jti antes do exp "desrevogaria" o token. maxSize é só o teto de memória
+//(~200 bytes por jti); cheio, revoke recusa a revogação (o logout falha) em vez de perder outra
+public class TokenDenylist {
+
+    private final boolean enabled;
+    private final long maxSize;
+    private final Cache<String, Instant> revoked;
+
+    public TokenDenylist(boolean enabled, long maxSize) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.revoked = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Instant>() {
+                @Override
+                public long expireAfterCreate(String jti, Instant expiresAt, long currentTime) {
+                    return Math.max(Duration.between(Instant.now(), expiresAt).toNanos(), 0);
+                }
+
+                @Override
+                public long expireAfterUpdate(String jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return expireAfterCreate(jti, expiresAt, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String jti, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //false só quando o denylist está cheio: a revogação não foi registrada
+    public synchronized boolean revoke(String jti, Instant expiresAt) {
+        if (!enabled || jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())
+                || revoked.getIfPresent(jti) != null) {
+            return true;
+        }
+        //estimatedSize conta expirados ainda não removidos (granularidade de ~1 s do Caffeine): cheio, conta só os válidos
+        Instant now = Instant.now();
+        if (revoked.estimatedSize() >= maxSize
+                && revoked.asMap().values().stream().filter(exp -> exp.isAfter(now)).count() >= maxSize) {
+            return false;
+        }
+        revoked.put(jti, expiresAt);
+        return true;
+    }
+
+    public boolean isRevoked(String jti) {
+        return enabled && jti != null && revoked.getIfPresent(jti) != null;
+    }
+
+    public long size() {
+        return revoked.estimatedSize();
+    }
+}
@@ -0,0 +1,41 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.http.converter.OAuth2ErrorHttpMessageConverter;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+//Mesma resposta de erro padrão do endpoint de token (400 + OAuth2Error), com 429/503 e Retry-After para throttling e sobrecarga
+public class TokenEndpointErrorHandler implements AuthenticationFailureHandler {
+
+    private final HttpMessageConverter<OAuth2Error> errorConverter = new OAuth2ErrorHttpMessageConverter();
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+            AuthenticationException exception) throws IOException {
+        SecurityContextHolder.clearContext();
+        OAuth2Error error = ((OAuth2AuthenticationException) exception).getError();
+        ServletServerHttpResponse httpResponse = new ServletServerHttpResponse(response);
+        if (exception instanceof LoginThrottledException throttled) {
+            httpResponse.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            httpResponse.getHeaders().set("Retry-After", String.valueOf(throttled.getRetryAfterSeconds()));
+        } else if (OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE.equals(error.getErrorCode())) {
+            httpResponse.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            httpResponse.getHeaders().set("Retry-After", "1");
+        } else {
+            httpResponse.setStatusCode(HttpStatus.BAD_REQUEST);
+        }
+        errorConverter.write(error, null, httpResponse);
+    }
+}
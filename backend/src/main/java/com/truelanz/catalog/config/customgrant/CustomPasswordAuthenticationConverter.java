@@ -13,6 +13,7 @@ import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
 import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
 import org.springframework.security.web.authentication.AuthenticationConverter;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -69,7 +70,9 @@ public class CustomPasswordAuthenticationConverter implements AuthenticationConv
 		});
 		
 		Authentication clientPrincipal = SecurityContextHolder.getContext().getAuthentication();	
-		return new CustomPasswordAuthenticationToken(clientPrincipal, requestedScopes, additionalParameters);
+		CustomPasswordAuthenticationToken token = new CustomPasswordAuthenticationToken(clientPrincipal, requestedScopes, additionalParameters);
+		token.setDetails(new WebAuthenticationDetails(request)); // IP do cliente, usado pelo LoginThrottle
+		return token;
 	}
 
 	private static MultiValueMap<String, String> getParameters(HttpServletRequest request) {
@@ -1,15 +1,21 @@
 package com.truelanz.catalog.config.customgrant;
 
 import java.security.Principal;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,54 +36,100 @@ import org.springframework.security.oauth2.server.authorization.context.Authoriz
 import org.springframework.security.oauth2.server.authorization.token.DefaultOAuth2TokenContext;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenContext;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.util.Assert;
 
+import com.truelanz.catalog.config.authorization.LoginThrottle;
+import com.truelanz.catalog.config.MetricsConfig;
+import com.truelanz.catalog.config.authorization.PasswordVerifier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 public class CustomPasswordAuthenticationProvider implements AuthenticationProvider {
 
+	private static final Logger logger = LoggerFactory.getLogger(CustomPasswordAuthenticationProvider.class);
 	private static final String ERROR_URI = "https://datatracker.ietf.org/doc/html/rfc6749#section-5.2";
 	private final OAuth2AuthorizationService authorizationService;
 	private final UserDetailsService userDetailsService;
 	private final OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator;
 	private final PasswordEncoder passwordEncoder;
-	private String username = "";
-	private String password = "";
-	private Set<String> authorizedScopes = new HashSet<>();
+	private final boolean saveAuthorization;
+	private final PasswordVerifier passwordVerifier;
+	private final LoginThrottle loginThrottle;
+	private final UserDetailsPasswordService userDetailsPasswordService;
+	private final MeterRegistry meterRegistry;
 
 	public CustomPasswordAuthenticationProvider(OAuth2AuthorizationService authorizationService,
 			OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator, 
-			UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+			UserDetailsService userDetailsService, PasswordEncoder passwordEncoder, boolean saveAuthorization,
+			PasswordVerifier passwordVerifier, LoginThrottle loginThrottle, UserDetailsPasswordService userDetailsPasswordService,
+			MeterRegistry meterRegistry) {
 		
 		Assert.notNull(authorizationService, "authorizationService cannot be null");
 		Assert.notNull(tokenGenerator, "TokenGenerator cannot be null");
 		Assert.notNull(userDetailsService, "UserDetailsService cannot be null");
 		Assert.notNull(passwordEncoder, "PasswordEncoder cannot be null");
+		Assert.notNull(passwordVerifier, "PasswordVerifier cannot be null");
+		Assert.notNull(loginThrottle, "LoginThrottle cannot be null");
+		Assert.notNull(meterRegistry, "MeterRegistry cannot be null");
 		this.authorizationService = authorizationService;
 		this.tokenGenerator = tokenGenerator;
 		this.userDetailsService = userDetailsService;
 		this.passwordEncoder = passwordEncoder;
+		this.saveAuthorization = saveAuthorization;
+		this.passwordVerifier = passwordVerifier;
+		this.loginThrottle = loginThrottle;
+		this.userDetailsPasswordService = userDetailsPasswordService;
+		this.meterRegistry = meterRegistry;
 	}
 	
+	// Tempo total do grant password (throttle, usuário, hash, JWT), por resultado: success ou código do erro OAuth2
 	@Override
 	public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String outcome = "success";
+		try {
+			return issueToken((CustomPasswordAuthenticationToken) authentication);
+		} catch (OAuth2AuthenticationException e) {
+			outcome = e.getError().getErrorCode().toLowerCase().replace(' ', '_');
+			throw e;
+		} catch (RuntimeException e) {
+			outcome = "error";
+			throw e;
+		} finally {
+			sample.stop(meterRegistry.timer(MetricsConfig.TOKEN_ISSUE, "outcome", outcome));
+		}
+	}
+
+	private Authentication issueToken(CustomPasswordAuthenticationToken customPasswordAuthenticationToken) {
 		
-		CustomPasswordAuthenticationToken customPasswordAuthenticationToken = (CustomPasswordAuthenticationToken) authentication;
 		OAuth2ClientAuthenticationToken clientPrincipal = getAuthenticatedClientElseThrowInvalidClient(customPasswordAuthenticationToken);
 		RegisteredClient registeredClient = clientPrincipal.getRegisteredClient();
-		username = customPasswordAuthenticationToken.getUsername();
-		password = customPasswordAuthenticationToken.getPassword();	
+		// Provider é uma instância única: todo estado do login fica em variáveis locais
+		String username = customPasswordAuthenticationToken.getUsername();
+		String password = customPasswordAuthenticationToken.getPassword();
+		String remoteAddress = remoteAddress(customPasswordAuthenticationToken);
+		
+		// Bloqueio por conta/IP antes de gastar CPU com o hash
+		loginThrottle.checkAllowed(username, remoteAddress);
 		
 		UserDetails user = null;
 		try {
 			user = userDetailsService.loadUserByUsername(username);
 		} catch (UsernameNotFoundException e) {
+			loginThrottle.failed(username, remoteAddress);
 			throw new OAuth2AuthenticationException("Invalid credentials");
 		}
 				
-		if (!passwordEncoder.matches(password, user.getPassword()) || !user.getUsername().equals(username)) {
+		if (!user.getUsername().equals(username) || !passwordVerifier.matches(password, user.getPassword())) {
+			loginThrottle.failed(username, remoteAddress);
 			throw new OAuth2AuthenticationException("Invalid credentials");
 		}
+		loginThrottle.succeeded(username);
+		upgradePasswordEncoding(user, password);
 
-		authorizedScopes = user.getAuthorities().stream()
+		Set<String> authorizedScopes = user.getAuthorities().stream()
 				.map(scope -> scope.getAuthority())
 				.filter(scope -> registeredClient.getScopes().contains(scope))
 				.collect(Collectors.toSet());
@@ -100,12 +152,6 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 				.authorizationGrantType(new AuthorizationGrantType("password"))
 				.authorizationGrant(customPasswordAuthenticationToken);
 		
-		OAuth2Authorization.Builder authorizationBuilder = OAuth2Authorization.withRegisteredClient(registeredClient)
-				.attribute(Principal.class.getName(), clientPrincipal)
-				.principalName(clientPrincipal.getName())
-				.authorizationGrantType(new AuthorizationGrantType("password"))
-				.authorizedScopes(authorizedScopes);
-		
 		//-----------ACCESS TOKEN----------
 		OAuth2TokenContext tokenContext = tokenContextBuilder.tokenType(OAuth2TokenType.ACCESS_TOKEN).build();
 		OAuth2Token generatedAccessToken = this.tokenGenerator.generate(tokenContext);
@@ -118,15 +164,22 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 		OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
 				generatedAccessToken.getTokenValue(), generatedAccessToken.getIssuedAt(),
 				generatedAccessToken.getExpiresAt(), tokenContext.getAuthorizedScopes());
-		if (generatedAccessToken instanceof ClaimAccessor) {
-			authorizationBuilder.token(accessToken, (metadata) ->
-					metadata.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME, ((ClaimAccessor) generatedAccessToken).getClaims()));
-		} else {
-			authorizationBuilder.accessToken(accessToken);
+		
+		//-----------AUTHORIZATION (modo stateless: o JWT é autocontido, nada é gravado)----------
+		if (saveAuthorization) {
+			OAuth2Authorization.Builder authorizationBuilder = OAuth2Authorization.withRegisteredClient(registeredClient)
+					.attribute(Principal.class.getName(), userPrincipal(user))
+					.principalName(user.getUsername())
+					.authorizationGrantType(new AuthorizationGrantType("password"))
+					.authorizedScopes(authorizedScopes);
+			if (generatedAccessToken instanceof ClaimAccessor) {
+				authorizationBuilder.token(accessToken, (metadata) ->
+						metadata.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME, ((ClaimAccessor) generatedAccessToken).getClaims()));
+			} else {
+				authorizationBuilder.accessToken(accessToken);
+			}
+			this.authorizationService.save(authorizationBuilder.build());
 		}
-				
-		OAuth2Authorization authorization = authorizationBuilder.build();
-		this.authorizationService.save(authorization);
 		
 		return new OAuth2AccessTokenAuthenticationToken(registeredClient, clientPrincipal, accessToken);
 	}
@@ -136,6 +189,30 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 		return CustomPasswordAuthenticationToken.class.isAssignableFrom(authentication);
 	}
 
+	// Senha com algoritmo/custo antigo é regravada com o encoder atual; pool ocupado: tenta no próximo login
+	private void upgradePasswordEncoding(UserDetails user, String rawPassword) {
+		if (userDetailsPasswordService == null || !passwordEncoder.upgradeEncoding(user.getPassword())) {
+			return;
+		}
+		try {
+			userDetailsPasswordService.updatePassword(user, passwordVerifier.encode(rawPassword));
+		} catch (OAuth2AuthenticationException e) {
+			logger.debug("Password upgrade skipped for {}: {}", user.getUsername(), e.getError().getErrorCode());
+		}
+	}
+
+	private static String remoteAddress(Authentication authentication) {
+		return authentication.getDetails() instanceof WebAuthenticationDetails details ? details.getRemoteAddress() : null;
+	}
+
+	// Somente tipos serializáveis pelos módulos Jackson do Spring Security (store jdbc)
+	private static Authentication userPrincipal(UserDetails user) {
+		List<GrantedAuthority> authorities = user.getAuthorities().stream()
+				.map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority.getAuthority()))
+				.collect(Collectors.toList());
+		return UsernamePasswordAuthenticationToken.authenticated(user.getUsername(), null, authorities);
+	}
+
 	private static OAuth2ClientAuthenticationToken getAuthenticatedClientElseThrowInvalidClient(Authentication authentication) {
 		
 		OAuth2ClientAuthenticationToken clientPrincipal = null;
@@ -0,0 +1,68 @@
+package com.truelanz.catalog.config.sql;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+//Comandos SQL por requisição: acima de maxStatements, ou com o mesmo SQL repetido maxRepeated vezes (N+1),
+//registra um aviso com o SQL mais repetido; com failOnThreshold (testes) a requisição falha com IllegalStateException
+public class SqlRequestMonitorFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlRequestMonitorFilter.class);
+
+    private final int maxStatements;
+    private final int maxRepeated;
+    private final boolean failOnThreshold;
+    private final DistributionSummary statementsPerRequest;
+
+    public SqlRequestMonitorFilter(int maxStatements, int maxRepeated, boolean failOnThreshold, MeterRegistry meterRegistry) {
+        this.maxStatements = maxStatements;
+        this.maxRepeated = maxRepeated;
+        this.failOnThreshold = failOnThreshold;
+        this.statementsPerRequest = DistributionSummary.builder("catalog.sql.statements")
+            .description("SQL statements issued per HTTP request")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statistics.stop();
+        }
+        statementsPerRequest.record(statistics.getStatements());
+
+        String violation = violation(statistics);
+        if (violation != null) {
+            String message = request.getMethod() + " " + request.getRequestURI() + " " + violation + " (" + statistics + ")";
+            if (failOnThreshold) {
+                throw new IllegalStateException(message);
+            }
+            logger.warn(message);
+        }
+    }
+
+    private String violation(SqlStatistics statistics) {
+        if (statistics.getStatements() > maxStatements) {
+            return "issued more than " + maxStatements + " SQL statements";
+        }
+        Map.Entry<String, Integer> repeated = statistics.getMostRepeated();
+        if (repeated != null && repeated.getValue() >= maxRepeated) {
+            return "repeated the same SQL " + repeated.getValue() + " times (N+1)";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.truelanz.catalog.config.sql;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+//Recebe cada comando executado pelo DataSource (JPA, JdbcTemplate, Authorization Server): soma nas estatísticas
+//da thread e registra os comandos lentos com o formato dos parâmetros (tipos, nunca os valores: emails, tokens, hashes)
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementListener.class);
+
+    private final long slowThresholdMillis;
+
+    public SqlStatementListener(Duration slowThreshold) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        boolean slow = execInfo.getElapsedTime() >= slowThresholdMillis;
+        SqlStatistics statistics = SqlStatistics.current();
+        //Lote JDBC (executeBatch) conta como um comando: é uma ida ao banco
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (statistics != null) {
+                statistics.record(queryInfo.getQuery(), execInfo.getElapsedTime(), slow);
+            }
+            if (slow) {
+                logger.warn("Slow SQL ({} ms{}): {} binds {}", execInfo.getElapsedTime(),
+                    execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                    queryInfo.getQuery(), bindShape(queryInfo));
+            }
+        }
+    }
+
+    //Ex.: [Long, String, null] por conjunto de parâmetros; em lote só o primeiro conjunto
+    static String bindShape(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> parameters = queryInfo.getParametersList();
+        if (parameters.isEmpty()) {
+            return "[]";
+        }
+        return parameters.get(0).stream()
+            .sorted(Comparator.comparingInt(operation -> operation.getArgs()[0] instanceof Integer index ? index : 0))
+            .map(SqlStatementListener::typeOf)
+            .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static String typeOf(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        return args[1].getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,81 @@
+package com.truelanz.catalog.config.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Comandos SQL executados pela thread atual entre start() e stop() (uma requisição, ou um trecho de teste).
+//Conta por texto do SQL: o mesmo SQL repetido muitas vezes na mesma requisição é o sinal de N+1
+public class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatistics outer;
+    private final Map<String, Integer> bySql = new LinkedHashMap<>();
+    private int statements;
+    private long elapsedMillis;
+    private int slowStatements;
+
+    private SqlStatistics(SqlStatistics outer) {
+        this.outer = outer;
+    }
+
+    //Aninhável: o trecho medido por um teste também conta para a requisição que o envolve
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public void stop() {
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+    }
+
+    void record(String sql, long elapsedMillis, boolean slow) {
+        statements++;
+        this.elapsedMillis += elapsedMillis;
+        if (slow) {
+            slowStatements++;
+        }
+        bySql.merge(sql, 1, Integer::sum);
+        if (outer != null) {
+            outer.record(sql, elapsedMillis, slow);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getSlowStatements() {
+        return slowStatements;
+    }
+
+    public Map<String, Integer> getStatementsBySql() {
+        return Collections.unmodifiableMap(bySql);
+    }
+
+    //SQL executado mais vezes (null se nenhum comando foi executado)
+    public Map.Entry<String, Integer> getMostRepeated() {
+        return bySql.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+
+    @Override
+    public String toString() {
+        Map.Entry<String, Integer> repeated = getMostRepeated();
+        return statements + " statements in " + elapsedMillis + " ms, " + slowStatements + " slow"
+            + (repeated == null ? "" : ", most repeated " + repeated.getValue() + "x: " + repeated.getKey());
+    }
+}
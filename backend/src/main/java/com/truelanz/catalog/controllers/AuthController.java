@@ -2,11 +2,13 @@ package com.truelanz.catalog.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.truelanz.catalog.dto.EmailDTO;
 import com.truelanz.catalog.dto.NewPasswordDTO;
 import com.truelanz.catalog.services.AuthService;
+import com.truelanz.catalog.services.TokenRevocationService;
 import jakarta.validation.Valid;
 
 import org.springframework.web.bind.annotation.PostMapping;
@@ -22,6 +24,9 @@ public class AuthController {
     @Autowired
     AuthService authService;
 
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
     @PostMapping(value = "/recover-token")
     public ResponseEntity<Void> createRecoverToken(@Valid @RequestBody EmailDTO body) { //Parametros: page, size, sort
         authService.createRecoverToken(body);
@@ -34,4 +39,11 @@ public class AuthController {
         return ResponseEntity.noContent().build();
     }
 
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping(value = "/logout") //Revoga o access token enviado no header Authorization
+    public ResponseEntity<Void> logout() {
+        tokenRevocationService.revokeCurrentToken();
+        return ResponseEntity.noContent().build();
+    }
+
 }
\ No newline at end of file
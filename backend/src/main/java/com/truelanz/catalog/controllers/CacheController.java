@@ -0,0 +1,27 @@
+package com.truelanz.catalog.controllers;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.truelanz.catalog.dto.CacheStatsDTO;
+import com.truelanz.catalog.services.CacheService;
+
+@RestController
+@RequestMapping(value = "/caches")
+public class CacheController {
+
+    @Autowired
+    private CacheService cacheService;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/stats")
+    public ResponseEntity<List<CacheStatsDTO>> stats() {
+        return ResponseEntity.ok().body(cacheService.stats());
+    }
+}
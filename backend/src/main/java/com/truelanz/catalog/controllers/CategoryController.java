@@ -8,9 +8,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.truelanz.catalog.dto.CategoryDTO;
+import com.truelanz.catalog.projections.CategoriesVersionProjection;
 import com.truelanz.catalog.services.CategoryService;
 
 import jakarta.validation.Valid;
@@ -31,8 +33,15 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
     
+    //ETag/Last-Modified pela versão da lista: If-None-Match igual -> 304 sem carregar as categorias
     @GetMapping()
-    public ResponseEntity<List<CategoryDTO>> findAll() {
+    public ResponseEntity<List<CategoryDTO>> findAll(WebRequest request) {
+        CategoriesVersionProjection version = categoryService.findAllVersion();
+        long lastModified = version.getLastModified() == null ? 0 : version.getLastModified().toEpochMilli();
+        String etag = "\"" + version.getCount() + "-" + lastModified + "\"";
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
         List <CategoryDTO> list = categoryService.findAll();
         return ResponseEntity.ok().body(list);
     }
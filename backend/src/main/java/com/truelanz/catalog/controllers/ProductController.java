@@ -1,20 +1,34 @@
 package com.truelanz.catalog.controllers;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.truelanz.catalog.dto.CountMode;
+import com.truelanz.catalog.dto.CursorPageDTO;
+import com.truelanz.catalog.dto.ExportFormat;
+import com.truelanz.catalog.dto.ProductBatchResultDTO;
 import com.truelanz.catalog.dto.ProductDTO;
+import com.truelanz.catalog.dto.SearchIndexStatsDTO;
+import com.truelanz.catalog.services.ProductExportService;
+import com.truelanz.catalog.services.ProductImportService;
 import com.truelanz.catalog.services.ProductService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -30,23 +44,63 @@ import org.springframework.web.bind.annotation.PutMapping;
 @RequestMapping(value = "/products")
 public class ProductController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     @Autowired
     private ProductService productService;
 
-    //FindAllPaged com @RequestParams e nativeQuery
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    //FindAllPaged com @RequestParams e nativeQuery (sort=relevance ordena pela relevância da busca por nome)
+    //count=exact|none|estimated: none dispensa o COUNT e responde só com hasNext (Slice)
     @GetMapping()
-    public ResponseEntity<Page<ProductDTO>> findAll(
+    public ResponseEntity<Slice<ProductDTO>> findAll(
         @RequestParam(value = "name", defaultValue = "") String name,
         @RequestParam(value = "categoryId", defaultValue = "0") String categoryId,
+        @RequestParam(value = "count", defaultValue = "exact") CountMode count,
         Pageable pageable) {
-        Page <ProductDTO> list = productService.findAllPaged(name, categoryId, pageable);
+        Slice <ProductDTO> list = productService.findAllPaged(name, categoryId, pageable, count);
         return ResponseEntity.ok().body(list);
     }
 
+    //Paginação por cursor (keyset): GET /products?cursor= para a primeira página, depois o nextCursor retornado
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> findAllByCursor(
+        @RequestParam(value = "name", defaultValue = "") String name,
+        @RequestParam(value = "categoryId", defaultValue = "0") String categoryId,
+        @RequestParam(value = "cursor") String cursor,
+        @RequestParam(value = "size", defaultValue = "12") Integer size,
+        @RequestParam(value = "withCount", defaultValue = "false") Boolean withCount) {
+        size = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        CursorPageDTO<ProductDTO> page = productService.findAllPaged(name, categoryId, cursor, size, withCount);
+        return ResponseEntity.ok().body(page);
+    }
+
+    //Catálogo inteiro (ou filtrado) em NDJSON ou CSV, escrito enquanto é lido do banco
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(
+        @RequestParam(value = "name", defaultValue = "") String name,
+        @RequestParam(value = "categoryId", defaultValue = "0") String categoryId,
+        @RequestParam(value = "format", defaultValue = "ndjson") ExportFormat format) {
+        List<Long> categoryIds = productService.parseCategoryIds(categoryId);
+        MediaType mediaType = format == ExportFormat.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = output -> productExportService.export(name, categoryIds, format, output);
+        return ResponseEntity.ok()
+            .contentType(mediaType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + format.name().toLowerCase())
+            .body(body);
+    }
+
+    //ETag pela versão do produto + categorias; If-None-Match igual -> 304 sem serializar (DTO vem do cache)
     @GetMapping(value = "/{id}")
     public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
         ProductDTO dto = productService.findById(id);
-        return ResponseEntity.ok().body(dto);
+        return ResponseEntity.ok().eTag(etag(dto)).body(dto);
     }
 
     //@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
@@ -58,6 +112,30 @@ public class ProductController {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    //Importação em lote: erros por linha no corpo da resposta, linhas válidas são gravadas
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductBatchResultDTO> insertBatch(@RequestBody List<ProductDTO> dtos) {
+        ProductBatchResultDTO result = productImportService.importProducts(dtos);
+        return ResponseEntity.ok(result);
+    }
+
+    //Mesma importação lendo o corpo em streaming (arquivos grandes): um JSON por linha
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ProductBatchResultDTO> insertBatchNdjson(HttpServletRequest request) throws IOException {
+        ProductBatchResultDTO result = productImportService.importNdjson(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
+    //Streaming em CSV com cabeçalho: name,description,price,imgUrl,date,categories
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @PostMapping(value = "/batch", consumes = "text/csv")
+    public ResponseEntity<ProductBatchResultDTO> insertBatchCsv(HttpServletRequest request) throws IOException {
+        ProductBatchResultDTO result = productImportService.importCsv(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
     @PutMapping(value = "/{id}")
     public ResponseEntity<ProductDTO> update(@PathVariable Long id, @RequestBody ProductDTO dto) {
@@ -71,4 +149,18 @@ public class ProductController {
         productService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    //Categorias entram no ETag: renomear uma categoria muda o produto sem alterar sua versão
+    private static String etag(ProductDTO dto) {
+        int categories = dto.getCategories().stream().map(x -> x.getId() + ":" + x.getName()).sorted().toList().hashCode();
+        return dto.getId() + "-" + dto.getVersion() + "-" + Integer.toHexString(categories);
+    }
+
+    //Reconstruir o índice de busca em memória (search.index.enabled)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/search-index/rebuild")
+    public ResponseEntity<SearchIndexStatsDTO> rebuildSearchIndex() {
+        SearchIndexStatsDTO stats = productService.rebuildSearchIndex();
+        return ResponseEntity.ok(stats);
+    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.time.Instant;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -11,7 +12,9 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.truelanz.catalog.services.exceptions.DataBaseException;
 import com.truelanz.catalog.services.exceptions.EmailException;
+import com.truelanz.catalog.services.exceptions.InvalidCursorException;
 import com.truelanz.catalog.services.exceptions.ResourceNotFoundException;
+import com.truelanz.catalog.services.exceptions.TooManyRequestsException;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -90,4 +93,43 @@ public class ControllerExceptionHandler {
         err.setPath(request.getRequestURI());
         return ResponseEntity.status(status).body(err);
     }
+
+    //409 - Conflict - produto alterado por outra requisição durante a atualização (@Version)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<StandardError> optimisticLock(ObjectOptimisticLockingFailureException e, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        StandardError err = new StandardError();
+        err.setTimestamp(Instant.now());
+        err.setStatus(status.value());
+        err.setError("Conflict");
+        err.setMessage("Resource was modified concurrently");
+        err.setPath(request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    //400 -Bad Request - cursor de paginação inválido
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<StandardError> invalidCursor(InvalidCursorException e, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        StandardError err = new StandardError();
+        err.setTimestamp(Instant.now());
+        err.setStatus(status.value());
+        err.setError("Invalid cursor");
+        err.setMessage(e.getMessage());
+        err.setPath(request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    //429 - Too Many Requests - limite de uso atingido (ex.: tokens de recuperação de senha por email)
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<StandardError> tooManyRequests(TooManyRequestsException e, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        StandardError err = new StandardError();
+        err.setTimestamp(Instant.now());
+        err.setStatus(status.value());
+        err.setError("Too Many Requests");
+        err.setMessage(e.getMessage());
+        err.setPath(request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
 }
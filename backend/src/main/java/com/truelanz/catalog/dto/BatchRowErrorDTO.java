@@ -0,0 +1,18 @@
+package com.truelanz.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//Erro de uma linha da importação em lote (row = posição do registro no envio, a partir de 1)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRowErrorDTO {
+
+    private Integer row;
+    private String field;
+    private String message;
+}
@@ -0,0 +1,8 @@
+package com.truelanz.catalog.dto;
+
+//Parâmetro count= de GET /products: total exato, sem total (Slice) ou estimado pelo banco
+public enum CountMode {
+    EXACT,
+    NONE,
+    ESTIMATED
+}
@@ -0,0 +1,26 @@
+package com.truelanz.catalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//Página da paginação por cursor (keyset), sem offset
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content = new ArrayList<>();
+    private Integer size;
+    private Boolean hasNext;
+    private String nextCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL) //Somente quando withCount=true
+    private Long totalElements;
+}
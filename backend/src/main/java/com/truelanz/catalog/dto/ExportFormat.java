@@ -0,0 +1,7 @@
+package com.truelanz.catalog.dto;
+
+//Parâmetro format= de GET /products/export
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
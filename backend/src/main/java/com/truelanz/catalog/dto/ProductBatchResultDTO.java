@@ -0,0 +1,22 @@
+package com.truelanz.catalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchResultDTO {
+
+    private Integer received;
+    private Integer inserted;
+    private Integer failed;
+    private List<BatchRowErrorDTO> errors = new ArrayList<>();
+    private Boolean errorsTruncated; //Mais erros do que product.import.max-errors
+}
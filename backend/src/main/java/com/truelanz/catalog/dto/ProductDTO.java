@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.truelanz.catalog.entities.Category;
 import com.truelanz.catalog.entities.Product;
 
@@ -36,6 +37,8 @@ public class ProductDTO {
     @PastOrPresent(message = "Product date need to be past or present")
     private Instant date;
     private List<CategoryDTO> categories = new ArrayList<>();
+    @JsonIgnore //Usado somente no ETag
+    private Long version;
 
     public ProductDTO(
         Long id, String name, String description, Double price, String imgUrl, Instant date
@@ -55,6 +58,7 @@ public class ProductDTO {
         price = entity.getPrice();
         imgUrl = entity.getImgUrl();
         date = entity.getDate();
+        version = entity.getVersion();
     }
 
     public ProductDTO(Product entity, Set<Category> categories) {
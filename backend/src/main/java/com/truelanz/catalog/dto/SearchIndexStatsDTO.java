@@ -0,0 +1,20 @@
+package com.truelanz.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexStatsDTO {
+
+    private Boolean enabled;
+    private Boolean ready;
+    private Integer documents;
+    private Integer terms;
+    private Long estimatedBytes;
+    private Long maxBytes;
+}
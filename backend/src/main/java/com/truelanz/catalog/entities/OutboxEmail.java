@@ -0,0 +1,62 @@
+package com.truelanz.catalog.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//Email gravado na mesma transação de quem pediu o envio; entregue depois pelo EmailOutboxService
+@Getter @Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "tb_outbox_email", indexes = @Index(name = "idx_outbox_email_status_next", columnList = "status, nextAttemptAt")) //Busca dos envios pendentes
+@Entity
+public class OutboxEmail {
+
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    private Long id;
+    @Column(nullable = false)
+    private String recipient;
+    @Column(nullable = false)
+    private String subject;
+    //null depois do envio (ou da desistência): não guarda links de recuperação de senha
+    @Column(columnDefinition = "TEXT")
+    private String body;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxEmailStatus status;
+    @Column(nullable = false)
+    private int attempts;
+    //Próxima tentativa; enquanto um envio está em andamento, fica à frente (lease) para não ser pego de novo.
+    //Em SENT/FAILED guarda o momento da finalização
+    @Column(nullable = false, columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant nextAttemptAt;
+    @Column(length = 500)
+    private String lastError;
+    @Column(nullable = false, columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant createdAt;
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant sentAt;
+
+    public OutboxEmail(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.status = OutboxEmailStatus.PENDING;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = createdAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.truelanz.catalog.entities;
+
+public enum OutboxEmailStatus {
+    PENDING, //Aguardando envio ou nova tentativa (nextAttemptAt)
+    SENT,
+    FAILED //Esgotou as tentativas
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -17,7 +18,11 @@ import lombok.Setter;
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@Table(name = "tb_password_recover")
+@Table(name = "tb_password_recover", indexes = {
+    @Index(name = "idx_password_recover_token", columnList = "token", unique = true), //Busca do token na troca de senha
+    @Index(name = "idx_password_recover_email_expiration", columnList = "email, expiration"), //Tokens ativos por email
+    @Index(name = "idx_password_recover_expiration", columnList = "expiration") //Limpeza dos expirados
+})
 @Entity
 public class PasswordRecover {
 
@@ -26,12 +31,11 @@ public class PasswordRecover {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Id
     private Long id;
+    //SHA-256 do token enviado por email: quem lê a tabela não consegue trocar a senha de ninguém
     @Column(nullable = false)
     private String token;
     @Column(nullable = false)
     private String email;
     @Column(nullable = false)
     private Instant expiration;
-
-    
 }
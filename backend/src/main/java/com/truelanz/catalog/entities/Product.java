@@ -12,10 +12,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -26,7 +28,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@Table(name = "tb_product")
+@Table(name = "tb_product", indexes = @Index(name = "idx_product_name_id", columnList = "name, id")) //Índice da paginação keyset
 @Entity
 public class Product implements IdProjection<Long> {
     
@@ -41,6 +43,12 @@ public class Product implements IdProjection<Long> {
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant date;
 
+    //Incrementado a cada alteração: base do ETag de GET /products/{id}
+    @Setter(AccessLevel.NONE)
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
     @Setter(AccessLevel.NONE)
     @ManyToMany(fetch = FetchType.EAGER)
 	@JoinTable(name = "tb_product_category",
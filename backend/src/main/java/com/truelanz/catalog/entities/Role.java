@@ -5,6 +5,8 @@ import java.util.Set;
 
 import org.springframework.security.core.GrantedAuthority;
 
+import com.truelanz.catalog.projections.IdProjection;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -23,7 +25,7 @@ import lombok.Setter;
 @NoArgsConstructor @AllArgsConstructor
 @Table(name = "tb_role")
 @Entity
-public class Role implements GrantedAuthority {
+public class Role implements GrantedAuthority, IdProjection<Long> {
     
     
     @EqualsAndHashCode.Include
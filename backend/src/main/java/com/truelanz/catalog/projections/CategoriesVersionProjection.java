@@ -0,0 +1,8 @@
+package com.truelanz.catalog.projections;
+
+import java.time.Instant;
+
+public interface CategoriesVersionProjection {
+    Long getCount();
+    Instant getLastModified();
+}
@@ -2,6 +2,9 @@ package com.truelanz.catalog.projections;
 
 public interface UserDetailProjection {
 
+    Long getUserId();
+    String getFirstName();
+    String getLastName();
     String getUsername();
     String getPassword();
     Long getRoleId();
@@ -1,13 +1,17 @@
 package com.truelanz.catalog.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.truelanz.catalog.entities.Category;
+import com.truelanz.catalog.projections.CategoriesVersionProjection;
 
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
-    
+    //Quantidade + última alteração: versão da lista de categorias (ETag/Last-Modified)
+    @Query("SELECT COUNT(obj) AS count, MAX(COALESCE(obj.updatedAt, obj.createdAt)) AS lastModified FROM Category obj")
+    CategoriesVersionProjection findVersion();
 }
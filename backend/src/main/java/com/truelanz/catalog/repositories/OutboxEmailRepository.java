@@ -0,0 +1,38 @@
+package com.truelanz.catalog.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.truelanz.catalog.entities.OutboxEmail;
+import com.truelanz.catalog.entities.OutboxEmailStatus;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    //FOR UPDATE SKIP LOCKED (lock.timeout=-2) no PostgreSQL: várias instâncias pegam lotes diferentes sem esperar umas pelas outras
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT obj FROM OutboxEmail obj WHERE obj.status = :status AND obj.nextAttemptAt <= :now ORDER BY obj.nextAttemptAt")
+    List<OutboxEmail> searchDue(OutboxEmailStatus status, Instant now, Pageable pageable);
+
+    //Finalizados têm nextAttemptAt = momento da finalização: lote pelo mesmo índice (status, nextAttemptAt)
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        DELETE FROM tb_outbox_email WHERE id IN (
+            SELECT id FROM tb_outbox_email WHERE status IN ('SENT', 'FAILED') AND next_attempt_at < :before LIMIT :limit)
+        """)
+    int deleteFinishedBefore(Instant before, int limit);
+}
@@ -4,15 +4,34 @@ import java.time.Instant;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.truelanz.catalog.entities.PasswordRecover;
 
 @Repository
 public interface PasswordRecoverRepository extends JpaRepository<PasswordRecover, Long> {
 
+    //token é o hash (idx_password_recover_token): busca por índice, independente do tamanho da tabela
     @Query("SELECT obj FROM PasswordRecover obj WHERE obj.token = :token AND obj.expiration > :now")
 	List<PasswordRecover> searchValidTokens(String token, Instant now);
 
+    @Query("SELECT COUNT(obj) FROM PasswordRecover obj WHERE obj.email = :email AND obj.expiration > :now")
+    long countValidTokens(String email, Instant now);
+
+    //Token usado: os outros enviados para o mesmo email também deixam de valer
+    @Modifying
+    @Query("DELETE FROM PasswordRecover obj WHERE obj.email = :email")
+    int deleteByEmail(String email);
+
+    //Sem DELETE ... LIMIT no PostgreSQL: lote escolhido por subconsulta, usando o índice de expiração
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        DELETE FROM tb_password_recover WHERE id IN (
+            SELECT id FROM tb_password_recover WHERE expiration < :now LIMIT :limit)
+        """)
+    int deleteExpired(Instant now, int limit);
 }
@@ -2,7 +2,6 @@ package com.truelanz.catalog.repositories;
 
 import java.util.List;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,28 +9,48 @@ import org.springframework.data.jpa.repository.Query;
 import com.truelanz.catalog.entities.Product;
 import com.truelanz.catalog.projections.ProductProjection;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
+    //Ids em blocos (keyset por id), usado para carregar o índice de busca em memória
+    @Query("SELECT obj.id FROM Product obj WHERE obj.id > :lastId ORDER BY obj.id")
+    List<Long> searchIdsAfter(Long lastId, Pageable pageable);
+
+    @Query("SELECT obj FROM Product obj JOIN FETCH obj.categories "
+		+ "WHERE obj.id IN :productIds")
+        List<Product> searchProductsWithCategories(List<Long> productIds);
+
+    //Paginação keyset (primeira página): ordenado por nome + id, sem OFFSET
     @Query(nativeQuery = true, value = """
-        SELECT * FROM (
-        SELECT DISTINCT p.id, p.name 
+        SELECT DISTINCT p.id, p.name
         FROM tb_product p
         INNER JOIN tb_product_category pc ON p.id = pc.product_id
         WHERE (:categoryIds IS NULL OR pc.category_id IN :categoryIds)
         AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))
-        ) AS tb_result
-        """, countQuery = """
-        SELECT COUNT(*) FROM (
-            SELECT DISTINCT p.id, p.name 
-            FROM tb_product p
-            INNER JOIN tb_product_category pc ON p.id = pc.product_id
-            WHERE (:categoryIds IS NULL OR pc.category_id IN :categoryIds)
-            AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))
-        ) AS tb_result
-    """)
-    Page<ProductProjection> searchProducts(List<Long> categoryIds, String name, Pageable pageable);
+        ORDER BY p.name, p.id
+        LIMIT :limit
+        """)
+    List<ProductProjection> searchProductsFirst(List<Long> categoryIds, String name, int limit);
 
-    @Query("SELECT obj FROM Product obj JOIN FETCH obj.categories "
-		+ "WHERE obj.id IN :productIds")
-        List<Product> searchProductsWithCategories(List<Long> productIds);
+    //Paginação keyset (páginas seguintes): continua a partir do último (nome, id) retornado. Comparação de linha
+    //(p.name, p.id) > (...): o índice idx_product_name_id começa a leitura no cursor, custo igual em qualquer página
+    @Query(nativeQuery = true, value = """
+        SELECT DISTINCT p.id, p.name
+        FROM tb_product p
+        INNER JOIN tb_product_category pc ON p.id = pc.product_id
+        WHERE (:categoryIds IS NULL OR pc.category_id IN :categoryIds)
+        AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))
+        AND (p.name, p.id) > (:lastName, :lastId)
+        ORDER BY p.name, p.id
+        LIMIT :limit
+        """)
+    List<ProductProjection> searchProductsAfter(List<Long> categoryIds, String name, String lastName, Long lastId, int limit);
+
+    @Query(nativeQuery = true, value = """
+        SELECT COUNT(DISTINCT p.id)
+        FROM tb_product p
+        INNER JOIN tb_product_category pc ON p.id = pc.product_id
+        WHERE (:categoryIds IS NULL OR pc.category_id IN :categoryIds)
+        AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))
+        """)
+    long countProducts(List<Long> categoryIds, String name);
     }
@@ -0,0 +1,21 @@
+package com.truelanz.catalog.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.truelanz.catalog.dto.ProductDTO;
+
+public interface ProductRepositoryCustom {
+
+    //Página de produtos já com categorias, total incluso, em uma única consulta
+    Page<ProductDTO> searchProductsPage(List<Long> categoryIds, String name, String tsQuery, Pageable pageable);
+
+    //Mesma consulta sem o total: busca uma linha a mais só para saber se existe próxima página
+    Slice<ProductDTO> searchProductsSlice(List<Long> categoryIds, String name, String tsQuery, Pageable pageable);
+
+    //Total aproximado pelo planejador (PostgreSQL); nos demais bancos, contagem exata
+    long estimateProducts(List<Long> categoryIds, String name, String tsQuery);
+}
@@ -0,0 +1,233 @@
+package com.truelanz.catalog.repositories;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.Session;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import com.truelanz.catalog.config.MetricsConfig;
+import com.truelanz.catalog.dto.CategoryDTO;
+import com.truelanz.catalog.dto.ProductDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    //Mesma expressão do índice GIN em db/postgresql/indexes.sql
+    private static final String TSVECTOR = "to_tsvector('simple', p.name || ' ' || COALESCE(p.description, ''))";
+
+    //Colunas aceitas em sort= (a ordenação é montada no SQL, então só nomes conhecidos)
+    private static final List<String> SORT_COLUMNS = List.of("id", "name", "price", "date", "relevance");
+
+    //Primeiro "Plan Rows" do EXPLAIN (FORMAT JSON) = estimativa do nó raiz
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired(required = false) //Slices de teste (@DataJpaTest) não têm MeterRegistry
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private Boolean postgres;
+
+    @Override
+    public Page<ProductDTO> searchProductsPage(List<Long> categoryIds, String name, String tsQuery, Pageable pageable) {
+        boolean fullText = !tsQuery.isEmpty();
+        String filtered = filteredProducts(categoryIds, fullText);
+
+        //page-query já inclui o total (COUNT(*) OVER ()) e as categorias
+        List<Object[]> rows = MetricsConfig.timeStage(meterRegistry, "page-query",
+            () -> pageRows(filtered, categoryIds, name, tsQuery, pageable, pageable.getPageSize(), true));
+        long total = rows.isEmpty() ? 0 : ((Number) rows.get(0)[0]).longValue();
+
+        //Página além do fim: não há linha para carregar o total, contar à parte
+        if (rows.isEmpty() && pageable.getOffset() > 0) {
+            total = MetricsConfig.timeStage(meterRegistry, "count-query", () -> countFiltered(filtered, categoryIds, name, tsQuery));
+        }
+
+        List<ProductDTO> content = MetricsConfig.timeStage(meterRegistry, "dto-mapping", () -> new ArrayList<>(toProducts(rows).values()));
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public Slice<ProductDTO> searchProductsSlice(List<Long> categoryIds, String name, String tsQuery, Pageable pageable) {
+        String filtered = filteredProducts(categoryIds, !tsQuery.isEmpty());
+
+        //size + 1 produtos: o excedente só indica que existe próxima página
+        List<Object[]> rows = MetricsConfig.timeStage(meterRegistry, "page-query",
+            () -> pageRows(filtered, categoryIds, name, tsQuery, pageable, pageable.getPageSize() + 1, false));
+        List<ProductDTO> content = MetricsConfig.timeStage(meterRegistry, "dto-mapping", () -> new ArrayList<>(toProducts(rows).values()));
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public long estimateProducts(List<Long> categoryIds, String name, String tsQuery) {
+        boolean fullText = !tsQuery.isEmpty();
+        String filtered = filteredProducts(categoryIds, fullText);
+        if (!isPostgres()) {
+            return countFiltered(filtered, categoryIds, name, tsQuery);
+        }
+
+        //Sem filtros: estatística da tabela (-1 enquanto ela nunca passou por ANALYZE)
+        if (name.isBlank() && categoryIds.isEmpty()) {
+            Number reltuples = (Number) entityManager.createNativeQuery(
+                "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relname = 'tb_product'").getSingleResult();
+            if (reltuples.longValue() >= 0) {
+                return reltuples.longValue();
+            }
+        }
+
+        //Com filtros: linhas estimadas pelo planejador no nó raiz do plano, sem executar a consulta
+        Query explain = entityManager.createNativeQuery("EXPLAIN (FORMAT JSON) " + filtered);
+        bindFilter(explain, categoryIds, name, tsQuery, fullText);
+        Matcher matcher = PLAN_ROWS.matcher(String.valueOf(explain.getSingleResult()));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : countFiltered(filtered, categoryIds, name, tsQuery);
+    }
+
+    //withTotal: COUNT(*) OVER () devolve o total junto das linhas da página; o JOIN externo traz as categorias
+    private List<Object[]> pageRows(String filtered, List<Long> categoryIds, String name, String tsQuery,
+            Pageable pageable, int limit, boolean withTotal) {
+        String sql = """
+            SELECT r.total, p.id, p.name, p.description, p.price, p.img_url, p.date, c.id AS category_id, c.name AS category_name
+            FROM (
+                SELECT tb_result.*, %s AS total
+                FROM (%s) AS tb_result
+                ORDER BY %s
+                LIMIT :limit OFFSET :offset
+            ) AS r
+            INNER JOIN tb_product p ON p.id = r.id
+            LEFT JOIN tb_product_category pc ON pc.product_id = p.id
+            LEFT JOIN tb_category c ON c.id = pc.category_id
+            ORDER BY %s, c.id
+            """.formatted(withTotal ? "COUNT(*) OVER ()" : "0", filtered,
+                orderBy(pageable.getSort(), "tb_result"), orderBy(pageable.getSort(), "r"));
+
+        Query query = entityManager.createNativeQuery(sql);
+        bindFilter(query, categoryIds, name, tsQuery, !tsQuery.isEmpty());
+        query.setParameter("limit", limit);
+        query.setParameter("offset", pageable.getOffset());
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows;
+    }
+
+    //Uma linha por produto/categoria -> um ProductDTO por produto, na ordem da página
+    private static Map<Long, ProductDTO> toProducts(List<Object[]> rows) {
+        Map<Long, ProductDTO> products = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            Long id = ((Number) row[1]).longValue();
+            ProductDTO dto = products.get(id);
+            if (dto == null) {
+                dto = new ProductDTO(id, (String) row[2], (String) row[3],
+                    row[4] == null ? null : ((Number) row[4]).doubleValue(), (String) row[5], toInstant(row[6]));
+                products.put(id, dto);
+            }
+            if (row[7] != null) {
+                dto.getCategories().add(new CategoryDTO(((Number) row[7]).longValue(), (String) row[8]));
+            }
+        }
+        return products;
+    }
+
+    private long countFiltered(String filtered, List<Long> categoryIds, String name, String tsQuery) {
+        Query count = entityManager.createNativeQuery("SELECT COUNT(*) FROM (" + filtered + ") AS tb_result");
+        bindFilter(count, categoryIds, name, tsQuery, !tsQuery.isEmpty());
+        return ((Number) count.getSingleResult()).longValue();
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = product.toLowerCase().contains("postgres");
+        }
+        return postgres;
+    }
+
+    //Produtos distintos que passam pelos filtros, com a coluna de relevância para sort=relevance
+    private static String filteredProducts(List<Long> categoryIds, boolean fullText) {
+        String relevance = fullText
+            ? "ts_rank(" + TSVECTOR + ", to_tsquery('simple', :query))"
+            : """
+            CASE WHEN LOWER(p.name) = LOWER(:name) THEN 3
+                WHEN LOWER(p.name) LIKE LOWER(CONCAT(:name, '%')) THEN 2
+                ELSE 1 END""";
+        String nameFilter = fullText
+            ? TSVECTOR + " @@ to_tsquery('simple', :query)"
+            : "LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))";
+        String categoryFilter = categoryIds.isEmpty() ? "" : "AND pc.category_id IN (:categoryIds)";
+
+        return """
+            SELECT DISTINCT p.id, p.name, p.price, p.date, %s AS relevance
+            FROM tb_product p
+            INNER JOIN tb_product_category pc ON p.id = pc.product_id
+            WHERE %s
+            %s
+            """.formatted(relevance, nameFilter, categoryFilter);
+    }
+
+    private static void bindFilter(Query query, List<Long> categoryIds, String name, String tsQuery, boolean fullText) {
+        if (fullText) {
+            query.setParameter("query", tsQuery);
+        } else {
+            query.setParameter("name", name);
+        }
+        if (!categoryIds.isEmpty()) {
+            query.setParameter("categoryIds", categoryIds);
+        }
+    }
+
+    //Propriedades fora de SORT_COLUMNS são ignoradas; id sempre desempata para a página ser estável
+    private static String orderBy(Sort sort, String alias) {
+        List<String> columns = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (SORT_COLUMNS.contains(order.getProperty())) {
+                columns.add(alias + "." + order.getProperty() + (order.isDescending() ? " DESC" : " ASC"));
+            }
+        }
+        if (sort.getOrderFor("id") == null) {
+            columns.add(alias + ".id ASC");
+        }
+        return String.join(", ", columns);
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.atZone(ZoneId.systemDefault()).toInstant();
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        return (Instant) value;
+    }
+}
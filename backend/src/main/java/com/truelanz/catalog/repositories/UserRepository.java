@@ -1,5 +1,6 @@
 package com.truelanz.catalog.repositories;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,8 +15,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByEmail(String email);
 
+    //Usuário dono de um token de recuperação válido (token = hash), com as roles, em uma única consulta
+    @Query("SELECT DISTINCT obj FROM User obj LEFT JOIN FETCH obj.roles WHERE obj.email IN ("
+        + "SELECT recover.email FROM PasswordRecover recover WHERE recover.token = :token AND recover.expiration > :now)")
+    User searchByValidRecoverToken(String token, Instant now);
+
+    //Login e GET /users/me (pelo UserCache): dados do usuário + roles em uma única consulta
     @Query(nativeQuery = true, value = """
     SELECT 
+        tb_user.id AS userId,
+        tb_user.first_name AS firstName,
+        tb_user.last_name AS lastName,
         tb_user.email AS username,
         tb_user.password,
         tb_role.id AS roleId,
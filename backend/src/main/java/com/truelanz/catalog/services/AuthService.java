@@ -1,13 +1,17 @@
 package com.truelanz.catalog.services;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
-import java.util.List;
+import java.util.Base64;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -21,6 +25,7 @@ import com.truelanz.catalog.entities.User;
 import com.truelanz.catalog.repositories.PasswordRecoverRepository;
 import com.truelanz.catalog.repositories.UserRepository;
 import com.truelanz.catalog.services.exceptions.ResourceNotFoundException;
+import com.truelanz.catalog.services.exceptions.TooManyRequestsException;
 
 @Service
 public class AuthService {
@@ -31,6 +36,9 @@ public class AuthService {
     @Value("${email.password-recover.uri}")
     private String recoverUri;
 
+    @Value("${email.password-recover.max-valid-tokens}")
+    private long maxValidTokens;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -41,7 +49,10 @@ public class AuthService {
     private PasswordRecoverRepository passwordRecoverRepository;
 
     @Autowired
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private UserCache userCache;
 
     @Transactional
     public void createRecoverToken(EmailDTO body) {
@@ -51,41 +62,61 @@ public class AuthService {
             throw new ResourceNotFoundException("Email not found");
         }
 
+        //Limite de tokens válidos por email: evita encher a tabela (e a caixa de entrada) com pedidos repetidos
+        if (passwordRecoverRepository.countValidTokens(body.getEmail(), Instant.now()) >= maxValidTokens) {
+            throw new TooManyRequestsException("Too many password recovery requests, check your email or retry later");
+        }
+
         String token = UUID.randomUUID().toString();
         
         PasswordRecover entity = new PasswordRecover();
         entity.setEmail(body.getEmail());
-        entity.setToken(token);
+        entity.setToken(hash(token)); //Só o hash é gravado; o token vai apenas no email
         entity.setExpiration(Instant.now().plusSeconds(tokenMinutes * 60L));
         entity = passwordRecoverRepository.save(entity);
         
         String bodyText = "Acesse o link para redefinição de senha\n\n" + recoverUri + token + "\n\n Esse link tem a validade de " + tokenMinutes + " minutos.";
 
-        emailService.sendEmail(body.getEmail(), "Recuperação de senha", bodyText);
+        //Só grava no outbox: o SMTP roda fora da requisição e uma falha de envio não desfaz o token
+        emailOutboxService.enqueue(body.getEmail(), "Recuperação de senha", bodyText);
     }
 
     @Transactional
     public void saveNewPassword(NewPasswordDTO body) {
-        List<PasswordRecover> result = passwordRecoverRepository.searchValidTokens(body.getToken(), Instant.now());
-        if(result.size() == 0) {
+        User user = userRepository.searchByValidRecoverToken(hash(body.getToken()), Instant.now());
+        if (user == null) {
             throw new ResourceNotFoundException("Invalid token");
         }
 
-        User user = userRepository.findByEmail(result.get(0).getEmail());
         user.setPassword(passwordEncoder.encode(body.getPassword()));
         user = userRepository.save(user);
+        userCache.removeUserFromCache(user.getEmail()); //Senha antiga não pode continuar valendo no login
+        passwordRecoverRepository.deleteByEmail(user.getEmail()); //Token de uso único
     }
 
-    //Obter usuário que está logado.
-    protected User authenticated() {
+    //Email do usuário logado, direto do claim do JWT (sem consulta ao banco)
+    protected String authenticatedUsername() {
+        String username = null;
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             Jwt jwtPrincipal = (Jwt) authentication.getPrincipal();
-            String username = jwtPrincipal.getClaim("username");
-            return userRepository.findByEmail(username);
+            username = jwtPrincipal.getClaim("username");
         }
         catch (Exception e) {
             throw new UsernameNotFoundException("Invalid user");
         }
+        if (username == null) {
+            throw new UsernameNotFoundException("Invalid user");
+        }
+        return username;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.truelanz.catalog.services;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+//Remove do oauth2_authorization (security.authorization-store=jdbc) as autorizações cujos tokens já expiraram
+@Service
+@ConditionalOnProperty(name = "security.authorization-store", havingValue = "jdbc")
+public class AuthorizationPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationPurgeService.class);
+
+    //Sem DELETE ... LIMIT no PostgreSQL: lote escolhido por subconsulta, usando os índices de expiração
+    private static final String DELETE_EXPIRED = """
+        DELETE FROM oauth2_authorization WHERE id IN (
+            SELECT id FROM oauth2_authorization
+            WHERE (access_token_expires_at IS NULL OR access_token_expires_at < ?)
+            AND (refresh_token_expires_at IS NULL OR refresh_token_expires_at < ?)
+            AND (authorization_code_expires_at IS NULL OR authorization_code_expires_at < ?)
+            AND (oidc_id_token_expires_at IS NULL OR oidc_id_token_expires_at < ?)
+            AND COALESCE(access_token_expires_at, refresh_token_expires_at, authorization_code_expires_at) IS NOT NULL
+            LIMIT ?)
+        """;
+
+    @Value("${security.authorization-store.purge-batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    //Cada lote é um comando separado (autocommit): não segura locks na tabela inteira
+    @Scheduled(fixedDelayString = "${security.authorization-store.purge-interval}",
+        initialDelayString = "${security.authorization-store.purge-interval}")
+    public int purgeExpired() {
+        Timestamp now = Timestamp.from(Instant.now());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_EXPIRED, now, now, now, now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            logger.info("Expired authorizations removed: {}", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,47 @@
+package com.truelanz.catalog.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.truelanz.catalog.config.authorization.CachingJwtDecoder;
+import com.truelanz.catalog.dto.CacheStatsDTO;
+
+@Service
+public class CacheService {
+
+    public static final String JWTS = "jwts";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    //Acertos, falhas e remoções por cache (vazio quando cache.enabled=false), mais o cache de JWTs verificados
+    public List<CacheStatsDTO> stats() {
+        List<CacheStatsDTO> list = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                list.add(toDto(name, caffeine));
+            }
+        }
+        if (jwtDecoder instanceof CachingJwtDecoder cachingJwtDecoder) {
+            list.add(toDto(JWTS, cachingJwtDecoder.getCache()));
+        }
+        return list;
+    }
+
+    private static CacheStatsDTO toDto(String name, com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+        CacheStats stats = caffeine.stats();
+        return new CacheStatsDTO(name, caffeine.estimatedSize(), stats.hitCount(), stats.missCount(),
+            stats.hitRate(), stats.evictionCount());
+    }
+}
@@ -4,13 +4,18 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.truelanz.catalog.config.CacheConfig;
 import com.truelanz.catalog.dto.CategoryDTO;
 import com.truelanz.catalog.entities.Category;
+import com.truelanz.catalog.projections.CategoriesVersionProjection;
 import com.truelanz.catalog.repositories.CategoryRepository;
 import com.truelanz.catalog.services.exceptions.DataBaseException;
 import com.truelanz.catalog.services.exceptions.ResourceNotFoundException;
@@ -23,12 +28,23 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductSearchIndexService productSearchIndexService;
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "'all'")
     @Transactional(readOnly = true)
     public List<CategoryDTO> findAll() {
         List<Category> result = categoryRepository.findAll();
         return result.stream().map(x -> new CategoryDTO(x)).toList();
     }
 
+    //Versão da lista, sem montar os DTOs: permite responder 304 direto
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "'version'")
+    @Transactional(readOnly = true)
+    public CategoriesVersionProjection findAllVersion() {
+        return categoryRepository.findVersion();
+    }
+
     @Transactional(readOnly = true)
     public CategoryDTO findById(Long id) {
         Optional<Category> obj = categoryRepository.findById(id);
@@ -36,6 +52,7 @@ public class CategoryService {
         return new CategoryDTO(entity);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true)
     @Transactional
     public CategoryDTO insert(CategoryDTO dto) {
         Category entity = new Category();
@@ -44,18 +61,28 @@ public class CategoryService {
         return new CategoryDTO(entity);
     }
 
+    //Produtos em cache carregam o nome das categorias: alterar/remover categoria invalida os dois caches
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    })
     @Transactional
     public CategoryDTO update(Long id, CategoryDTO dto) {
         try {
             Category entity = categoryRepository.getReferenceById(id);
             copyDtoToEntity(dto, entity);
             entity = categoryRepository.save(entity);
+            productSearchIndexService.renameCategory(entity.getId(), entity.getName());
             return new CategoryDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Id" + id + "not found");
         }
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CATEGORIES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true)
+    })
     @Transactional(propagation = Propagation.SUPPORTS)
     public void delete(Long id) {
         if (!categoryRepository.existsById(id)) {
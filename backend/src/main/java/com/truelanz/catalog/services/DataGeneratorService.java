@@ -0,0 +1,91 @@
+package com.truelanz.catalog.services;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.truelanz.catalog.util.CatalogDataGenerator;
+
+//Perfil datagen: popula o banco com dados sintéticos (datagen.*) na inicialização, antes de a aplicação ficar pronta.
+//A carga inteira é uma transação: se falhar no meio nada fica gravado. Usuários gerados (a última etapa) presentes
+//indicam carga completa e ela é pulada: reiniciar contra o mesmo banco não duplica os dados
+@Service
+@Profile("datagen")
+public class DataGeneratorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorService.class);
+
+    @Value("${datagen.seed}")
+    private long seed;
+
+    @Value("${datagen.categories}")
+    private int categories;
+
+    @Value("${datagen.products}")
+    private int products;
+
+    @Value("${datagen.max-categories-per-product}")
+    private int maxCategoriesPerProduct;
+
+    @Value("${datagen.category-skew}")
+    private double categorySkew;
+
+    @Value("${datagen.users}")
+    private int users;
+
+    @Value("${datagen.admin-ratio}")
+    private double adminRatio;
+
+    @Value("${datagen.user-password}")
+    private String userPassword;
+
+    @Value("${datagen.batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void generate() {
+        Integer generatedUsers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_user WHERE email LIKE ?",
+            Integer.class, "%" + CatalogDataGenerator.EMAIL_DOMAIN);
+        if (generatedUsers > 0) {
+            logger.info("Synthetic data already present ({} generated users): skipping load", generatedUsers);
+            return;
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> load());
+    }
+
+    private void load() {
+        CatalogDataGenerator generator = new CatalogDataGenerator(jdbcTemplate, seed, batchSize);
+        long start = System.currentTimeMillis();
+        List<Long> categoryIds = generator.categories(categories);
+        logger.info("Generated categories: {} in {} ms", categories, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        generator.products(products, categoryIds, maxCategoriesPerProduct, categorySkew);
+        logger.info("Generated products: {} in {} ms", products, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        generator.users(users, passwordEncoder.encode(userPassword), adminRatio);
+        logger.info("Generated users: {} in {} ms", users, System.currentTimeMillis() - start);
+    }
+}
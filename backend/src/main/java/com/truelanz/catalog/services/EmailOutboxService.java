@@ -0,0 +1,196 @@
+package com.truelanz.catalog.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.truelanz.catalog.entities.OutboxEmail;
+import com.truelanz.catalog.entities.OutboxEmailStatus;
+import com.truelanz.catalog.repositories.OutboxEmailRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+//Envio de email pela tabela tb_outbox_email: a requisição só grava a mensagem (mesma transação do negócio)
+//e um pool próprio entrega em lotes, com novas tentativas e backoff exponencial quando o SMTP falha
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    @Value("${email.outbox.threads}")
+    private int threads;
+
+    @Value("${email.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff}")
+    private Duration initialBackoff;
+
+    @Value("${email.outbox.max-backoff}")
+    private Duration maxBackoff;
+
+    @Value("${email.outbox.lease}")
+    private Duration lease;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolExecutor executor;
+
+    //Fila do tamanho do pool: mais avisos que isso são descartados, os workers já vão buscar tudo que está pendente
+    @PostConstruct
+    public void start() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("email-outbox-");
+        threadFactory.setDaemon(true);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads), threadFactory, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    //Precisa da transação de quem chama: a mensagem só existe se o restante for confirmado
+    @Transactional
+    public OutboxEmail enqueue(String to, String subject, String body) {
+        OutboxEmail email = outboxEmailRepository.save(new OutboxEmail(to, subject, body));
+        afterCommit(this::wakeUp);
+        return email;
+    }
+
+    //Entrega imediata sem esperar o próximo ciclo do agendamento
+    public void wakeUp() {
+        executor.execute(() -> {
+            try {
+                dispatch();
+            } catch (RuntimeException e) {
+                logger.error("Failed to process pending emails", e);
+            }
+        });
+    }
+
+    //Novas tentativas (backoff) e mensagens deixadas por outra instância
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval}", initialDelayString = "${email.outbox.poll-interval}")
+    public void poll() {
+        wakeUp();
+    }
+
+    //Entrega os lotes vencidos até esvaziar; devolve quantos emails foram enviados
+    public int dispatch() {
+        int sent = 0;
+        List<OutboxEmail> batch;
+        do {
+            batch = claim();
+            if (!batch.isEmpty()) {
+                sent += deliver(batch);
+            }
+        } while (batch.size() == batchSize);
+        return sent;
+    }
+
+    //Reserva o lote empurrando nextAttemptAt para frente (lease) e confirma logo: o SMTP roda sem conexão do banco presa.
+    //Se a instância cair no meio do envio, o lote volta a ficar pendente quando a lease vencer
+    private List<OutboxEmail> claim() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEmail> batch = outboxEmailRepository.searchDue(OutboxEmailStatus.PENDING, now, PageRequest.of(0, batchSize));
+            batch.forEach(email -> email.setNextAttemptAt(now.plus(lease)));
+            return batch;
+        });
+    }
+
+    //Corpo apagado quando o email é finalizado (SENT ou FAILED): pode conter o link de recuperação de senha.
+    //nextAttemptAt passa a marcar a finalização (retenção do OutboxEmailPurgeService)
+    private int deliver(List<OutboxEmail> batch) {
+        Map<Long, String> failures = emailService.sendAll(batch);
+        //O lote foi destacado no commit do claim: recarregado com um único SELECT ... IN, em vez de um merge
+        //(SELECT + UPDATE) por email no saveAll
+        List<Long> ids = batch.stream().map(OutboxEmail::getId).toList();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            for (OutboxEmail email : outboxEmailRepository.findAllById(ids)) {
+                finish(email, failures.get(email.getId()), failures.containsKey(email.getId()), now);
+            }
+        });
+        return batch.size() - failures.size();
+    }
+
+    private void finish(OutboxEmail email, String failure, boolean failed, Instant now) {
+        email.setAttempts(email.getAttempts() + 1);
+        if (!failed) {
+            email.setStatus(OutboxEmailStatus.SENT);
+            email.setSentAt(now);
+            email.setLastError(null);
+            email.setBody(null);
+            email.setNextAttemptAt(now);
+            return;
+        }
+        email.setLastError(truncate(failure));
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(OutboxEmailStatus.FAILED);
+            email.setBody(null);
+            email.setNextAttemptAt(now);
+            logger.error("Email {} to {} discarded after {} attempts: {}", email.getId(), email.getRecipient(),
+                email.getAttempts(), email.getLastError());
+        } else {
+            email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+            logger.warn("Failed to send email {} (attempt {}), retrying at {}: {}", email.getId(),
+                email.getAttempts(), email.getNextAttemptAt(), email.getLastError());
+        }
+    }
+
+    //initial-backoff, 2x, 4x... até max-backoff
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return "Unknown error";
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.truelanz.catalog.services;
 
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import com.truelanz.catalog.config.MetricsConfig;
+import com.truelanz.catalog.entities.OutboxEmail;
 import com.truelanz.catalog.services.exceptions.EmailException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class EmailService {
 	
@@ -19,7 +29,11 @@ public class EmailService {
     @Autowired
     private JavaMailSender emailSender;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public void sendEmail(String to, String subject, String body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try{
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom(emailFrom);
@@ -27,9 +41,52 @@ public class EmailService {
             message.setSubject(subject);
             message.setText(body);
             emailSender.send(message);
+            record(sample, "sent", 1, 0);
         } 
         catch (MailException e){
+            record(sample, "failed", 0, 1);
         	throw new EmailException("Failed to send email");
         } 
     }
+
+    //Lote enviado na mesma conexão SMTP; devolve id -> erro das mensagens que não foram entregues
+    public Map<Long, String> sendAll(List<OutboxEmail> emails) {
+        Map<Object, Long> ids = new IdentityHashMap<>(); //SimpleMailMessage tem equals por conteúdo
+        SimpleMailMessage[] messages = new SimpleMailMessage[emails.size()];
+        for (int i = 0; i < emails.size(); i++) {
+            OutboxEmail email = emails.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(emailFrom);
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages[i] = message;
+            ids.put(message, email.getId());
+        }
+
+        Map<Long, String> failures = new HashMap<>();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            emailSender.send(messages);
+        }
+        catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, error) -> failures.put(ids.get(message), error.getMessage()));
+            if (failures.isEmpty()) {
+                ids.values().forEach(id -> failures.put(id, e.getMessage()));
+            }
+        }
+        catch (MailException e) { //Autenticação, conexão: nada foi entregue
+            ids.values().forEach(id -> failures.put(id, e.getMessage()));
+        }
+        String outcome = failures.isEmpty() ? "sent" : failures.size() < emails.size() ? "partial" : "failed";
+        record(sample, outcome, emails.size() - failures.size(), failures.size());
+        return failures;
+    }
+
+    //Tempo por envio (mensagem avulsa ou lote) e contagem por mensagem entregue/recusada
+    private void record(Timer.Sample sample, String outcome, int sent, int failed) {
+        sample.stop(meterRegistry.timer(MetricsConfig.EMAIL_SEND, "outcome", outcome));
+        meterRegistry.counter(MetricsConfig.EMAIL_MESSAGES, "result", "sent").increment(sent);
+        meterRegistry.counter(MetricsConfig.EMAIL_MESSAGES, "result", "failed").increment(failed);
+    }
 }
@@ -0,0 +1,20 @@
+package com.truelanz.catalog.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.truelanz.catalog.config.authorization.RotatingJwkSource;
+
+//Rotação das chaves de assinatura e leitura das chaves geradas por outras instâncias (security.jwk.file)
+@Service
+public class JwkRotationService {
+
+    @Autowired
+    private RotatingJwkSource jwkSource;
+
+    @Scheduled(fixedDelayString = "${security.jwk.refresh-interval}", initialDelayString = "${security.jwk.refresh-interval}")
+    public void refresh() {
+        jwkSource.refresh();
+    }
+}
@@ -0,0 +1,45 @@
+package com.truelanz.catalog.services;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.truelanz.catalog.repositories.OutboxEmailRepository;
+
+//Remove do tb_outbox_email os emails finalizados (SENT ou FAILED) há mais de email.outbox.retention
+@Service
+public class OutboxEmailPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxEmailPurgeService.class);
+
+    @Value("${email.outbox.retention}")
+    private Duration retention;
+
+    @Value("${email.outbox.purge-batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    //Cada lote em uma transação própria: não segura locks na tabela inteira
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval}", initialDelayString = "${email.outbox.purge-interval}")
+    public int purgeFinished() {
+        Instant before = Instant.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = outboxEmailRepository.deleteFinishedBefore(before, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            logger.info("Finished outbox emails removed: {}", total);
+        }
+        return total;
+    }
+}
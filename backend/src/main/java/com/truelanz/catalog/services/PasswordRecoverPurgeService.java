@@ -0,0 +1,42 @@
+package com.truelanz.catalog.services;
+
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.truelanz.catalog.repositories.PasswordRecoverRepository;
+
+//Remove do tb_password_recover os tokens de recuperação de senha já expirados
+@Service
+public class PasswordRecoverPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordRecoverPurgeService.class);
+
+    @Value("${email.password-recover.purge-batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private PasswordRecoverRepository passwordRecoverRepository;
+
+    //Cada lote em uma transação própria: não segura locks na tabela inteira
+    @Scheduled(fixedDelayString = "${email.password-recover.purge-interval}",
+        initialDelayString = "${email.password-recover.purge-interval}")
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = passwordRecoverRepository.deleteExpired(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            logger.info("Expired password recovery tokens removed: {}", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,133 @@
+package com.truelanz.catalog.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truelanz.catalog.dto.CategoryDTO;
+import com.truelanz.catalog.dto.ExportFormat;
+import com.truelanz.catalog.dto.ProductDTO;
+import com.truelanz.catalog.util.CsvUtils;
+
+//Exportação do catálogo direto do ResultSet para a resposta, um produto por vez (memória constante)
+@Service
+public class ProductExportService {
+
+    private static final String CSV_HEADER = "id,name,description,price,imgUrl,date,categories";
+
+    @Value("${product.export.fetch-size}")
+    private int fetchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    //Mesmos filtros da busca (nome e categorias); a transação mantém o cursor do PostgreSQL aberto com fetch size
+    @Transactional(readOnly = true)
+    public void export(String name, List<Long> categoryIds, ExportFormat format, OutputStream output) throws IOException {
+        String categoryFilter = categoryIds.isEmpty()
+            ? ""
+            : " AND f.category_id IN (" + String.join(", ", Collections.nCopies(categoryIds.size(), "?")) + ")";
+
+        //Uma linha por produto/categoria, ordenadas por produto: linhas consecutivas formam um produto
+        String sql = """
+            SELECT p.id, p.name, p.description, p.price, p.img_url, p.date, c.id AS category_id, c.name AS category_name
+            FROM tb_product p
+            LEFT JOIN tb_product_category pc ON pc.product_id = p.id
+            LEFT JOIN tb_category c ON c.id = pc.category_id
+            WHERE LOWER(p.name) LIKE LOWER(CONCAT('%%', ?, '%%'))
+            AND EXISTS (SELECT 1 FROM tb_product_category f WHERE f.product_id = p.id%s)
+            ORDER BY p.id, c.id
+            """.formatted(categoryFilter);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER + "\n");
+        }
+
+        ProductRowHandler handler = new ProductRowHandler(writer, format);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, name);
+            for (int i = 0; i < categoryIds.size(); i++) {
+                ps.setLong(i + 2, categoryIds.get(i));
+            }
+            return ps;
+        }, handler);
+        handler.writeCurrent();
+        writer.flush();
+    }
+
+    //Agrupa as linhas do produto atual e escreve quando o id muda
+    private class ProductRowHandler implements RowCallbackHandler {
+
+        private final Writer writer;
+        private final ExportFormat format;
+        private ProductDTO current;
+
+        ProductRowHandler(Writer writer, ExportFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                writeCurrent();
+                Timestamp date = rs.getTimestamp("date");
+                current = new ProductDTO(id, rs.getString("name"), rs.getString("description"),
+                    rs.getObject("price") == null ? null : rs.getDouble("price"), rs.getString("img_url"),
+                    date == null ? null : date.toInstant());
+            }
+            long categoryId = rs.getLong("category_id");
+            if (!rs.wasNull()) {
+                current.getCategories().add(new CategoryDTO(categoryId, rs.getString("category_name")));
+            }
+        }
+
+        void writeCurrent() {
+            if (current == null) {
+                return;
+            }
+            try {
+                if (format == ExportFormat.CSV) {
+                    String categories = current.getCategories().stream()
+                        .map(c -> c.getId().toString())
+                        .collect(Collectors.joining("|"));
+                    writer.write(String.join(",", CsvUtils.escape(current.getId()), CsvUtils.escape(current.getName()),
+                        CsvUtils.escape(current.getDescription()), CsvUtils.escape(current.getPrice()),
+                        CsvUtils.escape(current.getImgUrl()), CsvUtils.escape(current.getDate()), categories));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(current));
+                }
+                writer.write("\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); //Cliente desconectou: interrompe a leitura do cursor
+            }
+            current = null;
+        }
+    }
+}
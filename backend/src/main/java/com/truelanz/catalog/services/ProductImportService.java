@@ -0,0 +1,318 @@
+package com.truelanz.catalog.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truelanz.catalog.dto.BatchRowErrorDTO;
+import com.truelanz.catalog.dto.CategoryDTO;
+import com.truelanz.catalog.dto.ProductBatchResultDTO;
+import com.truelanz.catalog.dto.ProductDTO;
+import com.truelanz.catalog.entities.Category;
+import com.truelanz.catalog.entities.Product;
+import com.truelanz.catalog.repositories.CategoryRepository;
+import com.truelanz.catalog.util.CsvUtils;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+//Importação em lote de produtos: validação por linha, blocos de product.import.chunk-size em lotes JDBC
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final String INSERT_PRODUCT =
+        "INSERT INTO tb_product (name, description, price, img_url, date) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_CATEGORY =
+        "INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)";
+
+    @Value("${product.import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${product.import.max-errors}")
+    private int maxErrors;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductSearchIndexService productSearchIndexService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ProductBatchResultDTO importProducts(List<ProductDTO> dtos) {
+        ImportRun run = new ImportRun();
+        dtos.forEach(run::add);
+        return run.finish();
+    }
+
+    //Um ProductDTO em JSON por linha; lido direto do corpo da requisição, sem carregar o arquivo inteiro
+    public ProductBatchResultDTO importNdjson(InputStream input) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(objectMapper.readValue(line, ProductDTO.class));
+            } catch (JsonProcessingException e) {
+                run.reject(null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    //Cabeçalho obrigatório: name,description,price,imgUrl,date,categories (ids separados por "|")
+    public ProductBatchResultDTO importCsv(InputStream input) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> names = CsvUtils.readRecord(reader);
+        if (names == null) {
+            return run.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).replace("\uFEFF", "").trim().toLowerCase().replace("_", ""), i);
+        }
+
+        //Registro a registro, não linha a linha: descrições com quebra de linha vêm entre aspas em várias linhas
+        while (true) {
+            List<String> fields;
+            try {
+                fields = CsvUtils.readRecord(reader);
+            } catch (IllegalArgumentException e) {
+                run.reject(null, "Invalid CSV row: " + e.getMessage()); //Aspas sem fechamento consomem o resto do arquivo
+                break;
+            }
+            if (fields == null) {
+                break;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                run.add(fromCsv(fields, columns));
+            } catch (RuntimeException e) {
+                run.reject(null, "Invalid CSV row: " + e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private ProductDTO fromCsv(List<String> fields, Map<String, Integer> columns) {
+        ProductDTO dto = new ProductDTO(null, csvValue(fields, columns, "name"), csvValue(fields, columns, "description"),
+            null, csvValue(fields, columns, "imgurl"), null);
+        String price = csvValue(fields, columns, "price");
+        if (price != null) {
+            dto.setPrice(Double.parseDouble(price));
+        }
+        String date = csvValue(fields, columns, "date");
+        if (date != null) {
+            dto.setDate(Instant.parse(date));
+        }
+        String categories = csvValue(fields, columns, "categories");
+        if (categories != null) {
+            Arrays.stream(categories.split("\\|"))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .forEach(id -> dto.getCategories().add(new CategoryDTO(Long.parseLong(id), null)));
+        }
+        return dto;
+    }
+
+    private static String csvValue(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
+        }
+        return fields.get(index).trim();
+    }
+
+    //Estado de uma importação: bloco atual, categorias já resolvidas e erros (limitados a maxErrors)
+    private class ImportRun {
+
+        private final List<ProductDTO> chunk = new ArrayList<>();
+        private final List<Integer> chunkRows = new ArrayList<>();
+        private final Map<Long, Category> categories = new HashMap<>();
+        private final List<BatchRowErrorDTO> errors = new ArrayList<>();
+        private int received;
+        private int inserted;
+        private int failed;
+        private boolean errorsTruncated;
+
+        void add(ProductDTO dto) {
+            int row = ++received;
+            Set<ConstraintViolation<ProductDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                failed++;
+                violations.forEach(v -> error(row, v.getPropertyPath().toString(), v.getMessage()));
+                return;
+            }
+            if (dto.getCategories().stream().anyMatch(c -> c.getId() == null)) {
+                failed++;
+                error(row, "categories", "Category id is required");
+                return;
+            }
+            chunk.add(dto);
+            chunkRows.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        //Registro que nem chegou a virar ProductDTO (JSON/CSV inválido)
+        void reject(String field, String message) {
+            int row = ++received;
+            failed++;
+            error(row, field, message);
+        }
+
+        ProductBatchResultDTO finish() {
+            flush();
+            return new ProductBatchResultDTO(received, inserted, failed, errors, errorsTruncated);
+        }
+
+        private void error(int row, String field, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(new BatchRowErrorDTO(row, field, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        //Categorias ainda desconhecidas do bloco em uma única consulta; cada bloco na sua transação
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Long> unknown = chunk.stream()
+                .flatMap(dto -> dto.getCategories().stream())
+                .map(CategoryDTO::getId)
+                .filter(id -> !categories.containsKey(id))
+                .distinct()
+                .toList();
+            if (!unknown.isEmpty()) {
+                categoryRepository.findAllById(unknown).forEach(c -> categories.put(c.getId(), c));
+            }
+
+            List<Product> products = new ArrayList<>();
+            List<Integer> rows = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                ProductDTO dto = chunk.get(i);
+                List<Long> missing = dto.getCategories().stream()
+                    .map(CategoryDTO::getId)
+                    .filter(id -> !categories.containsKey(id))
+                    .toList();
+                if (!missing.isEmpty()) {
+                    failed++;
+                    error(chunkRows.get(i), "categories", "Category not found: " + missing);
+                    continue;
+                }
+                Product product = new Product(null, dto.getName(), dto.getDescription(), dto.getPrice(), dto.getImgUrl(), dto.getDate());
+                dto.getCategories().forEach(c -> product.getCategories().add(categories.get(c.getId())));
+                products.add(product);
+                rows.add(chunkRows.get(i));
+            }
+
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> insert(products));
+                inserted += products.size();
+            } catch (DataAccessException e) {
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                logger.warn("Failed to import chunk of {} products: {}", products.size(), message);
+                failed += products.size();
+                rows.forEach(row -> error(row, null, "Database error: " + message));
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+    }
+
+    //Produtos em um lote JDBC (ids devolvidos pelo próprio lote), depois os vínculos com categorias em outro lote
+    private void insert(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_PRODUCT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Product product : products) {
+                    ps.setString(1, product.getName());
+                    ps.setString(2, product.getDescription());
+                    ps.setDouble(3, product.getPrice());
+                    ps.setString(4, product.getImgUrl());
+                    if (product.getDate() == null) {
+                        ps.setNull(5, Types.TIMESTAMP);
+                    } else {
+                        ps.setTimestamp(5, Timestamp.from(product.getDate()));
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> keys = new ArrayList<>();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        keys.add(rs.getLong("id"));
+                    }
+                }
+                return keys;
+            }
+        });
+        if (ids.size() != products.size()) {
+            throw new IllegalStateException("Expected " + products.size() + " generated ids, got " + ids.size());
+        }
+
+        List<long[]> links = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            product.setId(ids.get(i));
+            product.getCategories().forEach(c -> links.add(new long[] {product.getId(), c.getId()}));
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_CATEGORY, links, chunkSize, (ps, link) -> {
+            ps.setLong(1, link[0]);
+            ps.setLong(2, link[1]);
+        });
+
+        products.forEach(productSearchIndexService::put);
+    }
+}
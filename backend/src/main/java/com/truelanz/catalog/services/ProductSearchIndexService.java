@@ -0,0 +1,434 @@
+package com.truelanz.catalog.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.truelanz.catalog.dto.CategoryDTO;
+import com.truelanz.catalog.dto.ProductDTO;
+import com.truelanz.catalog.dto.SearchIndexStatsDTO;
+import com.truelanz.catalog.entities.Product;
+import com.truelanz.catalog.repositories.ProductRepository;
+
+//Índice invertido em memória (nome, descrição e categorias) para GET /products?name=
+@Service
+public class ProductSearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int FUZZY_MIN_LENGTH = 4;
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_FUZZY = 1;
+
+    //Estimativas de memória (bytes) usadas para o limite search.index.max-memory-mb
+    private static final long DOCUMENT_OVERHEAD = 200;
+    private static final long CATEGORY_OVERHEAD = 64;
+    private static final long TERM_OVERHEAD = 96;
+    private static final long POSTING_OVERHEAD = 48;
+
+    @Value("${search.index.enabled}")
+    private boolean enabled;
+
+    @Value("${search.index.max-memory-mb}")
+    private long maxMemoryMb;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private Index index = new Index();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    //Reconstrói o índice a partir do banco, em blocos, e troca pelo atual no final
+    public synchronized SearchIndexStatsDTO rebuild() {
+        if (!enabled) {
+            return stats();
+        }
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            Index fresh = new Index();
+            Long lastId = 0L;
+            List<Long> ids;
+            do {
+                ids = productRepository.searchIdsAfter(lastId, PageRequest.of(0, BATCH_SIZE));
+                if (!ids.isEmpty()) {
+                    for (Product product : productRepository.searchProductsWithCategories(ids)) {
+                        fresh.add(new ProductDTO(product, product.getCategories()));
+                    }
+                    if (fresh.estimatedBytes > maxBytes()) {
+                        disable("rebuild");
+                        return stats();
+                    }
+                    lastId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == BATCH_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                index = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding = false;
+        }
+
+        //Reaplicar alterações que chegaram durante a reconstrução
+        for (Long id : changedDuringRebuild) {
+            reload(id);
+        }
+        changedDuringRebuild.clear();
+
+        SearchIndexStatsDTO stats = stats();
+        logger.info("Product search index built: {} documents, {} terms, ~{} bytes",
+            stats.getDocuments(), stats.getTerms(), stats.getEstimatedBytes());
+        return stats;
+    }
+
+    //Retorna null quando o índice não consegue responder (ex.: ordenação não suportada)
+    public Page<ProductDTO> search(String name, List<Long> categoryIds, Pageable pageable) {
+        List<String> terms = new ArrayList<>(tokenize(name));
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, Integer> scores = null;
+        List<ProductDTO> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            //Multi-termo: todos os termos precisam casar (AND), somando a pontuação
+            for (String term : terms) {
+                Map<Long, Integer> termScores = index.match(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            for (Long id : scores.keySet()) {
+                ProductDTO dto = index.documents.get(id);
+                if (categoryIds.isEmpty() || dto.getCategories().stream().anyMatch(c -> categoryIds.contains(c.getId()))) {
+                    matches.add(dto);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Comparator<ProductDTO> comparator = comparator(pageable.getSort(), scores);
+        if (comparator == null) {
+            return null;
+        }
+        matches.sort(comparator);
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(new ArrayList<>(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    public void put(Product entity) {
+        if (!enabled) {
+            return;
+        }
+        ProductDTO dto = new ProductDTO(entity, entity.getCategories());
+        afterCommit(() -> apply(dto.getId(), idx -> idx.add(dto)));
+    }
+
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> apply(id, idx -> idx.remove(id)));
+    }
+
+    //Categoria renomeada: atualizar a cópia da categoria nos produtos indexados
+    public void renameCategory(Long categoryId, String name) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                List<ProductDTO> affected = index.documents.values().stream()
+                    .filter(dto -> dto.getCategories().stream().anyMatch(c -> c.getId().equals(categoryId)))
+                    .toList();
+                for (ProductDTO dto : affected) {
+                    ProductDTO copy = new ProductDTO(dto.getId(), dto.getName(), dto.getDescription(),
+                        dto.getPrice(), dto.getImgUrl(), dto.getDate());
+                    dto.getCategories().forEach(c -> copy.getCategories().add(
+                        c.getId().equals(categoryId) ? new CategoryDTO(categoryId, name) : c));
+                    index.add(copy);
+                    if (rebuilding) {
+                        changedDuringRebuild.add(copy.getId());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public SearchIndexStatsDTO stats() {
+        lock.readLock().lock();
+        try {
+            return new SearchIndexStatsDTO(enabled, ready, index.documents.size(), index.postings.size(),
+                index.estimatedBytes, maxBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Long id, Consumer<Index> change) {
+        if (rebuilding) {
+            changedDuringRebuild.add(id);
+        }
+        if (!ready) {
+            return;
+        }
+        boolean overLimit;
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            overLimit = index.estimatedBytes > maxBytes();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (overLimit) {
+            disable("update");
+        }
+    }
+
+    private void reload(Long id) {
+        List<Product> result = productRepository.searchProductsWithCategories(List.of(id));
+        if (result.isEmpty()) {
+            apply(id, idx -> idx.remove(id));
+        } else {
+            ProductDTO dto = new ProductDTO(result.get(0), result.get(0).getCategories());
+            apply(id, idx -> idx.add(dto));
+        }
+    }
+
+    //Acima do limite de memória o índice é desligado e a busca volta para o banco
+    private void disable(String phase) {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            index = new Index();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.warn("Product search index exceeded {} MB during {}, falling back to database search", maxMemoryMb, phase);
+    }
+
+    private long maxBytes() {
+        return maxMemoryMb * 1024 * 1024;
+    }
+
+    //Alterações só entram no índice depois do commit
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    //Sem ordenação (ou sort=relevance): mais relevantes primeiro, desempate por nome
+    private static Comparator<ProductDTO> comparator(Sort sort, Map<Long, Integer> scores) {
+        Comparator<ProductDTO> byName = Comparator.comparing(ProductDTO::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        if (sort.isUnsorted() || sort.getOrderFor("relevance") != null) {
+            Comparator<ProductDTO> byScore = Comparator.comparing(dto -> scores.get(dto.getId()));
+            return byScore.reversed().thenComparing(byName);
+        }
+        Comparator<ProductDTO> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProductDTO> next = switch (order.getProperty()) {
+                case "name" -> byName;
+                case "price" -> Comparator.comparing(ProductDTO::getPrice, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "date" -> Comparator.comparing(ProductDTO::getDate, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "id" -> Comparator.comparing(ProductDTO::getId);
+                default -> null;
+            };
+            if (next == null) {
+                return null;
+            }
+            next = order.isDescending() ? next.reversed() : next;
+            result = (result == null) ? next : result.thenComparing(next);
+        }
+        return result.thenComparing(ProductDTO::getId);
+    }
+
+    //Minúsculas e sem acentos: "Eletrônicos" -> "eletronicos"
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        Arrays.stream(normalized.split("[^\\p{L}\\p{N}]+")).filter(t -> !t.isEmpty()).forEach(tokens::add);
+        return tokens;
+    }
+
+    static boolean withinOneEdit(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        int i = 0;
+        int j = 0;
+        int edits = 0;
+        while (i < a.length() && j < b.length()) {
+            if (a.charAt(i) == b.charAt(j)) {
+                i++;
+                j++;
+                continue;
+            }
+            if (++edits > 1) {
+                return false;
+            }
+            if (a.length() > b.length()) {
+                i++;
+            } else if (a.length() < b.length()) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        return edits + (a.length() - i) + (b.length() - j) <= 1;
+    }
+
+    private static class Index {
+
+        private final Map<Long, ProductDTO> documents = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private long estimatedBytes;
+
+        void add(ProductDTO dto) {
+            remove(dto.getId());
+            documents.put(dto.getId(), dto);
+            estimatedBytes += documentSize(dto);
+            for (String term : terms(dto)) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(term, ids);
+                    estimatedBytes += TERM_OVERHEAD + term.length() * 2L;
+                }
+                if (ids.add(dto.getId())) {
+                    estimatedBytes += POSTING_OVERHEAD;
+                }
+            }
+        }
+
+        void remove(Long id) {
+            ProductDTO dto = documents.remove(id);
+            if (dto == null) {
+                return;
+            }
+            estimatedBytes -= documentSize(dto);
+            for (String term : terms(dto)) {
+                Set<Long> ids = postings.get(term);
+                if (ids != null && ids.remove(id)) {
+                    estimatedBytes -= POSTING_OVERHEAD;
+                    if (ids.isEmpty()) {
+                        postings.remove(term);
+                        estimatedBytes -= TERM_OVERHEAD + term.length() * 2L;
+                    }
+                }
+            }
+        }
+
+        //Termo exato > prefixo > fuzzy (1 edição, mesma letra inicial, só se não houver exato/prefixo)
+        Map<Long, Integer> match(String term) {
+            Map<Long, Integer> scores = new HashMap<>();
+            for (Map.Entry<String, Set<Long>> entry : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                int score = entry.getKey().equals(term) ? SCORE_EXACT : SCORE_PREFIX;
+                entry.getValue().forEach(id -> scores.merge(id, score, Math::max));
+            }
+            if (scores.isEmpty() && term.length() >= FUZZY_MIN_LENGTH) {
+                String first = term.substring(0, 1);
+                for (Map.Entry<String, Set<Long>> entry : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                    if (withinOneEdit(term, entry.getKey())) {
+                        entry.getValue().forEach(id -> scores.merge(id, SCORE_FUZZY, Math::max));
+                    }
+                }
+            }
+            return scores;
+        }
+
+        private static Set<String> terms(ProductDTO dto) {
+            Set<String> terms = tokenize(dto.getName());
+            terms.addAll(tokenize(dto.getDescription()));
+            dto.getCategories().forEach(c -> terms.addAll(tokenize(c.getName())));
+            return terms;
+        }
+
+        private static long documentSize(ProductDTO dto) {
+            long chars = length(dto.getName()) + length(dto.getDescription()) + length(dto.getImgUrl());
+            for (CategoryDTO category : dto.getCategories()) {
+                chars += length(category.getName());
+            }
+            return DOCUMENT_OVERHEAD + CATEGORY_OVERHEAD * dto.getCategories().size() + chars * 2;
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+}
@@ -2,32 +2,59 @@ package com.truelanz.catalog.services;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.truelanz.catalog.config.CacheConfig;
+import com.truelanz.catalog.config.MetricsConfig;
 import com.truelanz.catalog.dto.CategoryDTO;
+import com.truelanz.catalog.dto.CountMode;
+import com.truelanz.catalog.dto.CursorPageDTO;
 import com.truelanz.catalog.dto.ProductDTO;
-import com.truelanz.catalog.entities.Category;
+import com.truelanz.catalog.dto.SearchIndexStatsDTO;
 import com.truelanz.catalog.entities.Product;
 import com.truelanz.catalog.projections.ProductProjection;
 import com.truelanz.catalog.repositories.CategoryRepository;
 import com.truelanz.catalog.repositories.ProductRepository;
 import com.truelanz.catalog.services.exceptions.DataBaseException;
 import com.truelanz.catalog.services.exceptions.ResourceNotFoundException;
+import com.truelanz.catalog.util.ProductCursor;
 import com.truelanz.catalog.util.Utils;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
 public class ProductService {
+
+    private static final String RELEVANCE = "relevance";
+
+    private static final int MAX_COUNT_ESTIMATES = 1000;
+
+    @Value("${search.full-text.enabled}")
+    private boolean fullTextEnabled;
+
+    @Value("${search.count-estimate.ttl-seconds}")
+    private long countEstimateTtlSeconds;
+
+    private final Map<String, CountEstimate> countEstimates = new ConcurrentHashMap<>();
     
     @Autowired
     private ProductRepository productRepository;
@@ -35,6 +62,12 @@ public class ProductService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductSearchIndexService productSearchIndexService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // Find all sem retornar categorias
     @Transactional(readOnly = true)
     public Page<ProductDTO> findAllPaged(Pageable pageable) {
@@ -43,29 +76,84 @@ public class ProductService {
     }
 
     //FindAllPaged com @RequestParams e nativeQuery
-    @SuppressWarnings("unchecked")
     @Transactional(readOnly = true)
     public Page<ProductDTO> findAllPaged(String name, String categoryId, Pageable pageable) {
 
-        //Converter string de ids para uma Long List
-        List<Long> categoryIdList = Arrays.asList();
-        //Somente se não houver passado parâmetro de Request, converter String de ids para uma Long List
-        if (!"0".equals(categoryId)){
-            categoryIdList = Arrays.asList(categoryId.split(",")).stream().map(Long::parseLong).toList();
+        List<Long> categoryIdList = parseCategoryIds(categoryId);
+        Page<ProductDTO> indexed = searchIndex(name, categoryIdList, pageable);
+        if (indexed != null) {
+            return indexed;
+        }
+
+        //Página, total e categorias em uma única ida ao banco, já mapeados para ProductDTO
+        String tsQuery = fullTextEnabled ? toTsQuery(name) : "";
+        return productRepository.searchProductsPage(categoryIdList, name, tsQuery, sortByRelevance(pageable)); //Etapas medidas no repositório
+    }
+
+    //count=exact (Page com total), none (Slice, só hasNext) ou estimated (Page com total estimado pelo banco)
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> findAllPaged(String name, String categoryId, Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return findAllPaged(name, categoryId, pageable);
         }
-        Page<ProductProjection> page = productRepository.searchProducts(categoryIdList, name, pageable);
-        List<Long> productsIds = page.map(x -> x.getId()).toList();
 
-        List<Product> entities = productRepository.searchProductsWithCategories(productsIds);
-        entities = (List<Product>) Utils.replace(page.getContent(), entities); //Gerar nova lista (ordenada)
-        
-        List<ProductDTO> dtos = entities.stream().map(p -> new ProductDTO(p, p.getCategories())).toList();
+        List<Long> categoryIdList = parseCategoryIds(categoryId);
+        Page<ProductDTO> indexed = searchIndex(name, categoryIdList, pageable);
+        if (indexed != null) {
+            return indexed; //O índice já conhece o total exato sem custo extra
+        }
 
-        //instanciar productDTO complete como pageable
-        return new PageImpl<>(dtos, page.getPageable(), page.getTotalElements());
+        String tsQuery = fullTextEnabled ? toTsQuery(name) : "";
+        Slice<ProductDTO> slice = productRepository.searchProductsSlice(categoryIdList, name, tsQuery, sortByRelevance(pageable));
+        if (countMode == CountMode.NONE) {
+            return slice;
+        }
+
+        //A estimativa nunca pode contradizer a página que acabou de ser lida
+        long minimum = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        long estimate = MetricsConfig.timeStage(meterRegistry, "count-estimate", () -> estimateCount(categoryIdList, name, tsQuery));
+        return new PageImpl<>(slice.getContent(), pageable, Math.max(estimate, minimum));
+    }
+
+    //Paginação por cursor (keyset): custo constante em qualquer profundidade, count opcional
+    @SuppressWarnings("unchecked")
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findAllPaged(String name, String categoryId, String cursor, int size, boolean withCount) {
+
+        List<Long> categoryIdList = parseCategoryIds(categoryId);
+        ProductCursor after = ProductCursor.decode(cursor);
+
+        //Busca size + 1 para saber se existe próxima página sem precisar do count
+        List<ProductProjection> rows = MetricsConfig.timeStage(meterRegistry, "search-query", () -> (after == null)
+            ? productRepository.searchProductsFirst(categoryIdList, name, size + 1)
+            : productRepository.searchProductsAfter(categoryIdList, name, after.getLastName(), after.getLastId(), size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<ProductProjection> page = hasNext ? rows.subList(0, size) : rows;
+
+        List<Long> productsIds = page.stream().map(x -> x.getId()).toList();
+        List<Product> fetched = MetricsConfig.timeStage(meterRegistry, "fetch-categories",
+            () -> productRepository.searchProductsWithCategories(productsIds));
+        List<Product> entities = MetricsConfig.timeStage(meterRegistry, "reorder",
+            () -> (List<Product>) Utils.replace(page, fetched)); //Gerar nova lista (ordenada)
+
+        List<ProductDTO> dtos = MetricsConfig.timeStage(meterRegistry, "dto-mapping",
+            () -> entities.stream().map(p -> new ProductDTO(p, p.getCategories())).toList());
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductProjection last = page.get(page.size() - 1);
+            nextCursor = new ProductCursor(last.getId(), last.getName()).encode();
+        }
+        Long total = withCount
+            ? MetricsConfig.timeStage(meterRegistry, "count-query", () -> productRepository.countProducts(categoryIdList, name))
+            : null;
+
+        return new CursorPageDTO<>(dtos, size, hasNext, nextCursor, total);
     }
 
     // Find by Id retornando as categorias
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Transactional(readOnly = true)
     public ProductDTO findById(Long id) {
         Optional<Product> obj = productRepository.findById(id);
@@ -78,21 +166,25 @@ public class ProductService {
         Product entity = new Product();
         copyDtoToEntity(dto, entity);
         entity = productRepository.save(entity);
+        productSearchIndexService.put(entity);
         return new ProductDTO(entity);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Transactional
     public ProductDTO update(Long id, ProductDTO dto) {
         try {
             Product entity = productRepository.getReferenceById(id);
             copyDtoToEntity(dto, entity);
             entity = productRepository.save(entity);
+            productSearchIndexService.put(entity);
             return new ProductDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Id" + id + "not found");
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Transactional(propagation = Propagation.SUPPORTS)
     public void delete(Long id) {
         if (!productRepository.existsById(id)) {
@@ -100,12 +192,67 @@ public class ProductService {
         }
         try {
             productRepository.deleteById(id);    		
+            productSearchIndexService.remove(id);
         }
             catch (DataIntegrityViolationException e) {
                 throw new DataBaseException("Falha de integridade referencial");
         }
     }
 
+    //Reconstrução manual do índice de busca em memória
+    public SearchIndexStatsDTO rebuildSearchIndex() {
+        return productSearchIndexService.rebuild();
+    }
+
+    //Índice de busca em memória (search.index.enabled): responde sem consultar o banco (null = usar o banco)
+    private Page<ProductDTO> searchIndex(String name, List<Long> categoryIds, Pageable pageable) {
+        if (name.isBlank() || !productSearchIndexService.isReady()) {
+            return null;
+        }
+        return MetricsConfig.timeStage(meterRegistry, "index", () -> productSearchIndexService.search(name, categoryIds, pageable));
+    }
+
+    //Estimativa em cache por filtro durante search.count-estimate.ttl-seconds
+    private long estimateCount(List<Long> categoryIds, String name, String tsQuery) {
+        String key = categoryIds + "|" + name.toLowerCase() + "|" + tsQuery;
+        long now = System.currentTimeMillis();
+        CountEstimate cached = countEstimates.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.value;
+        }
+        long value = productRepository.estimateProducts(categoryIds, name, tsQuery);
+        if (countEstimates.size() >= MAX_COUNT_ESTIMATES) {
+            countEstimates.clear(); //Limite simples: evita crescer sem controle com filtros digitados livremente
+        }
+        countEstimates.put(key, new CountEstimate(value, now + countEstimateTtlSeconds * 1000));
+        return value;
+    }
+
+    //sort=relevance: mais relevantes primeiro, desempate por nome
+    private Pageable sortByRelevance(Pageable pageable) {
+        if (pageable.getSort().getOrderFor(RELEVANCE) == null) {
+            return pageable;
+        }
+        Sort sort = Sort.by(Sort.Direction.DESC, RELEVANCE).and(Sort.by("name"));
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    //"pc gam" -> "pc:* & gam:*" (prefixo por termo, para busca enquanto o usuário digita; vazio = busca com LIKE)
+    private String toTsQuery(String name) {
+        return Arrays.stream(name.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+            .filter(term -> !term.isEmpty())
+            .map(term -> term + ":*")
+            .collect(Collectors.joining(" & "));
+    }
+
+    //Converter string de ids para uma Long List ("0" = sem filtro de categoria); também usado pela exportação
+    public List<Long> parseCategoryIds(String categoryId) {
+        if ("0".equals(categoryId)) {
+            return Arrays.asList();
+        }
+        return Arrays.asList(categoryId.split(",")).stream().map(Long::parseLong).toList();
+    }
+
     //copiando do DTO para a entidade
     private void copyDtoToEntity(ProductDTO dto, Product entity) {
         entity.setName(dto.getName());
@@ -114,13 +261,20 @@ public class ProductService {
         entity.setDate(dto.getDate());
         entity.setImgUrl(dto.getImgUrl());
 
-        //Para vincular uma entidade ao produto
+        //Para vincular uma entidade ao produto (todas as categorias em uma única consulta)
         entity.getCategories().clear();
-        for (CategoryDTO categoryDTO : dto.getCategories()) {
-            //System.out.println(">> ID da categoria recebida no DTO: " + categoryDTO.getId());
-            Category category = categoryRepository.findById(categoryDTO.getId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found"));
-            entity.getCategories().add(category);
+        List<Long> categoryIds = dto.getCategories().stream().map(CategoryDTO::getId).toList();
+        entity.getCategories().addAll(Utils.findAllById(categoryRepository, categoryIds, "Category"));
+    }
+
+    private static class CountEstimate {
+
+        private final long value;
+        private final long expiresAt;
+
+        CountEstimate(long value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
         }
     }
-}
\ No newline at end of file
+}
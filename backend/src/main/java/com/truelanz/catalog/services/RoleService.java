@@ -3,6 +3,7 @@ package com.truelanz.catalog.services;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.truelanz.catalog.config.CacheConfig;
 import com.truelanz.catalog.dto.RoleDTO;
 import com.truelanz.catalog.entities.Role;
 import com.truelanz.catalog.repositories.RoleRepository;
@@ -45,6 +47,8 @@ public class RoleService {
         return new RoleDTO(entity);
     }
 
+    //Usuários em cache carregam suas roles: alterar/remover role invalida todos
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
     @Transactional
     public RoleDTO update(Long id, RoleDTO dto) {
         try {
@@ -57,6 +61,7 @@ public class RoleService {
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true)
     @Transactional(propagation = Propagation.SUPPORTS)
     public void delete(Long id) {
         if (!roleRepository.existsById(id)) {
@@ -0,0 +1,37 @@
+package com.truelanz.catalog.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.stereotype.Service;
+
+import com.truelanz.catalog.config.authorization.TokenDenylist;
+import com.truelanz.catalog.services.exceptions.TooManyRequestsException;
+
+//Fora do AuthService: AuthService é dependência do UserDetailsService usado pelo servidor de autorização
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private OAuth2AuthorizationService authorizationService;
+
+    //Revoga o token da requisição: jti no denylist até o exp e, se houver, remove a autorização gravada
+    public void revokeCurrentToken() {
+        Jwt jwt = (Jwt) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        boolean recorded = tokenDenylist.revoke(jwt.getId(), jwt.getExpiresAt());
+        OAuth2Authorization authorization = authorizationService.findByToken(jwt.getTokenValue(), OAuth2TokenType.ACCESS_TOKEN);
+        if (authorization != null) {
+            authorizationService.remove(authorization);
+        }
+        //Denylist cheio: o JWT continuaria valendo, então o logout não pode responder sucesso
+        if (!recorded) {
+            throw new TooManyRequestsException("Too many revoked tokens, retry later");
+        }
+    }
+}
@@ -7,7 +7,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -26,11 +28,12 @@ import com.truelanz.catalog.repositories.RoleRepository;
 import com.truelanz.catalog.repositories.UserRepository;
 import com.truelanz.catalog.services.exceptions.DataBaseException;
 import com.truelanz.catalog.services.exceptions.ResourceNotFoundException;
+import com.truelanz.catalog.util.Utils;
 
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -44,17 +47,25 @@ public class UserService implements UserDetailsService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private UserCache userCache;
+
     @Transactional(readOnly = true)
     public Page<UserDTO> findAllPaged(Pageable pageable) {
         Page<User> result = userRepository.findAll(pageable);
         return result.map(x -> new UserDTO(x));
     }
 
-    //Obter Usuário logado
-    @Transactional(readOnly = true)
+    //Obter Usuário logado: email do JWT e usuário + roles do cache do login (consulta única só quando não está no cache).
+    //Sem @Transactional: no acerto do cache nenhuma conexão é pega do pool; a consulta nativa não precisa de transação
     public UserDTO findMe() {
-        User entity = authService.authenticated();
-        return new UserDTO(entity); //retorna também as Roles dos usuários
+        String username = authService.authenticatedUsername();
+        UserDetails user = userCache.getUserFromCache(username);
+        if (!(user instanceof User)) {
+            user = loadUserByUsername(username);
+            userCache.putUserInCache(user);
+        }
+        return new UserDTO((User) user); //retorna também as Roles dos usuários
     }
 
     @Transactional(readOnly = true)
@@ -85,8 +96,10 @@ public class UserService implements UserDetailsService {
     public UserDTO update(Long id, UserUpdateDTO dto) {
         try {
             User entity = userRepository.getReferenceById(id);
+            userCache.removeUserFromCache(entity.getEmail()); //Email antigo e novo: roles e email mudam o login
             copyDtoToEntity(dto, entity);
             entity = userRepository.save(entity);
+            userCache.removeUserFromCache(entity.getEmail());
             return new UserDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Id" + id + "not found");
@@ -95,11 +108,11 @@ public class UserService implements UserDetailsService {
 
     @Transactional(propagation = Propagation.SUPPORTS)
     public void delete(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Recurso não encontrado");
-        }
+        User entity = userRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Recurso não encontrado"));
         try {
             userRepository.deleteById(id);    		
+            userCache.removeUserFromCache(entity.getEmail());
         }
             catch (DataIntegrityViolationException e) {
                 throw new DataBaseException("Falha de integridade referencial");
@@ -112,13 +125,10 @@ public class UserService implements UserDetailsService {
         entity.setLastName(dto.getLastName());
         entity.setEmail(dto.getEmail());
 
-        //Para vincular uma entidade as roles
+        //Para vincular uma entidade as roles (todas em uma única consulta)
         entity.getRoles().clear();
-        for (RoleDTO roleDTO : dto.getRoles()) {
-            Role role = roleRepository.findById(roleDTO.getId())
-                .orElseThrow(() -> new EntityNotFoundException("Role not found"));
-            entity.getRoles().add(role);
-        }
+        List<Long> roleIds = dto.getRoles().stream().map(RoleDTO::getId).toList();
+        entity.getRoles().addAll(Utils.findAllById(roleRepository, roleIds, "Role"));
     }
 
     @Override
@@ -130,6 +140,9 @@ public class UserService implements UserDetailsService {
         }
 
         User user = new User();
+        user.setId(result.get(0).getUserId());
+        user.setFirstName(result.get(0).getFirstName());
+        user.setLastName(result.get(0).getLastName());
         user.setEmail(result.get(0).getUsername());
         user.setPassword(result.get(0).getPassword());
         
@@ -138,4 +151,14 @@ public class UserService implements UserDetailsService {
         }
         return user;
     }
-}
\ No newline at end of file
+
+    //Chamado no login quando o hash usa algoritmo/custo antigo (upgrade do DelegatingPasswordEncoder)
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByEmail(user.getUsername());
+        entity.setPassword(newPassword);
+        userCache.removeUserFromCache(entity.getEmail());
+        return entity;
+    }
+}
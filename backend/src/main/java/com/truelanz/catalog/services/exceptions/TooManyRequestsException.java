@@ -0,0 +1,8 @@
+package com.truelanz.catalog.services.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,188 @@
+package com.truelanz.catalog.util;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Gera dados sintéticos reproduzíveis (mesma semente = mesmos dados) direto por lotes JDBC, sem passar pelo JPA.
+// Cada etapa tem o seu próprio gerador aleatório: mudar a quantidade de usuários não altera os produtos gerados
+public class CatalogDataGenerator {
+
+    public static final String EMAIL_DOMAIN = "@datagen.local";
+
+    public static final String[] WORDS = {
+        "Phone", "Notebook", "Monitor", "Keyboard", "Mouse", "Camera", "Tablet", "Speaker", "Headset", "Printer",
+        "Router", "Watch", "Console", "Drone", "Charger", "Book", "Novel", "Guide", "Lamp", "Chair"
+    };
+
+    private static final String[] ADJECTIVES = {
+        "Smart", "Pro", "Mini", "Ultra", "Classic", "Wireless", "Gamer", "Compact", "Premium", "Basic"
+    };
+
+    private static final String[] FIRST_NAMES = {
+        "Alex", "Maria", "Alan", "Ana", "Bruno", "Carla", "Diego", "Elisa", "Fabio", "Gabriela"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Brown", "Green", "Oliveira", "Silva", "Souza", "Costa", "Pereira", "Lima", "Santos", "Rocha"
+    };
+
+    private static final Instant BASE_DATE = Instant.parse("2020-01-01T00:00:00Z");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long seed;
+    private final int batchSize;
+
+    public CatalogDataGenerator(JdbcTemplate jdbcTemplate, long seed, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seed = seed;
+        this.batchSize = batchSize;
+    }
+
+    // Devolve os ids das categorias criadas, na ordem de criação (a primeira é a mais popular em products)
+    public List<Long> categories(int count) {
+        Long lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_category", Long.class);
+        SplittableRandom random = random(1);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 1; i <= count; i++) {
+            batch.add(new Object[] {
+                WORDS[random.nextInt(WORDS.length)] + " " + i,
+                Timestamp.from(BASE_DATE.plusSeconds(random.nextLong(100_000_000L)))
+            });
+            flush(batch, false, "INSERT INTO tb_category (name, created_at) VALUES (?, ?)");
+        }
+        flush(batch, true, "INSERT INTO tb_category (name, created_at) VALUES (?, ?)");
+        return jdbcTemplate.queryForList("SELECT id FROM tb_category WHERE id > ? ORDER BY id", Long.class, lastId);
+    }
+
+    // Cada produto recebe de 1 a maxCategoriesPerProduct das categorias informadas, sorteadas por Zipf com expoente skew:
+    // poucas categorias concentram a maioria dos produtos (skew=0: distribuição uniforme)
+    public int products(int count, List<Long> categoryIds, int maxCategoriesPerProduct, double skew) {
+        Long lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_product", Long.class);
+        if (categoryIds.isEmpty()) {
+            throw new IllegalStateException("No categories to link the generated products to");
+        }
+
+        SplittableRandom random = random(2);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < count; i++) {
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + random.nextInt(100_000);
+            batch.add(new Object[] {
+                name,
+                Math.round(random.nextDouble(10, 5000) * 100) / 100.0,
+                Timestamp.from(BASE_DATE.plusSeconds(random.nextLong(100_000_000L))),
+                "Generated product " + name,
+                "https://img.com/" + (i % 1000) + ".png"
+            });
+            flush(batch, false, "INSERT INTO tb_product (name, price, date, description, img_url) VALUES (?, ?, ?, ?, ?)");
+        }
+        flush(batch, true, "INSERT INTO tb_product (name, price, date, description, img_url) VALUES (?, ?, ?, ?, ?)");
+
+        double[] cumulative = zipf(categoryIds.size(), skew);
+        SplittableRandom linkRandom = random(3);
+        int maxCategories = Math.min(maxCategoriesPerProduct, categoryIds.size());
+        forEachNewId("tb_product", lastId, id -> {
+            int links = 1 + linkRandom.nextInt(maxCategories);
+            List<Long> chosen = new ArrayList<>(links);
+            for (int attempt = 0; chosen.size() < links && attempt < links * 4; attempt++) {
+                Long categoryId = categoryIds.get(sample(cumulative, linkRandom.nextDouble()));
+                if (!chosen.contains(categoryId)) {
+                    chosen.add(categoryId);
+                    batch.add(new Object[] {id, categoryId});
+                }
+            }
+            flush(batch, false, "INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)");
+        });
+        flush(batch, true, "INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)");
+        return count;
+    }
+
+    // Todos com o mesmo hash de senha (já codificado): calcular BCrypt por usuário levaria horas para milhões de linhas.
+    // Todos recebem ROLE_OPERATOR; a fração adminRatio também recebe ROLE_ADMIN
+    public int users(int count, String passwordHash, double adminRatio) {
+        Long lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_user", Long.class);
+        Long operatorId = roleId("ROLE_OPERATOR");
+        Long adminId = roleId("ROLE_ADMIN");
+
+        SplittableRandom random = random(4);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 1; i <= count; i++) {
+            batch.add(new Object[] {
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                "user" + i + EMAIL_DOMAIN,
+                passwordHash
+            });
+            flush(batch, false, "INSERT INTO tb_user (first_name, last_name, email, password) VALUES (?, ?, ?, ?)");
+        }
+        flush(batch, true, "INSERT INTO tb_user (first_name, last_name, email, password) VALUES (?, ?, ?, ?)");
+
+        SplittableRandom roleRandom = random(5);
+        forEachNewId("tb_user", lastId, id -> {
+            batch.add(new Object[] {id, operatorId});
+            if (roleRandom.nextDouble() < adminRatio) {
+                batch.add(new Object[] {id, adminId});
+            }
+            flush(batch, false, "INSERT INTO tb_user_role (user_id, role_id) VALUES (?, ?)");
+        });
+        flush(batch, true, "INSERT INTO tb_user_role (user_id, role_id) VALUES (?, ?)");
+        return count;
+    }
+
+    // Probabilidade acumulada de cada posição: P(k) proporcional a 1 / k^skew
+    static double[] zipf(int size, double skew) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1 / Math.pow(k + 1, skew);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    static int sample(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private SplittableRandom random(int step) {
+        return new SplittableRandom(seed * 31 + step);
+    }
+
+    private Long roleId(String authority) {
+        return jdbcTemplate.queryForObject("SELECT id FROM tb_role WHERE authority = ?", Long.class, authority);
+    }
+
+    // Percorre os ids gerados por páginas (keyset), sem carregar milhões de ids na memória
+    private void forEachNewId(String table, long lastId, LongConsumer action) {
+        long after = lastId;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?",
+                Long.class, after, batchSize);
+            for (Long id : ids) {
+                action.accept(id);
+            }
+            if (!ids.isEmpty()) {
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == batchSize);
+    }
+
+    private void flush(List<Object[]> batch, boolean force, String sql) {
+        if (!batch.isEmpty() && (force || batch.size() >= batchSize)) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+}
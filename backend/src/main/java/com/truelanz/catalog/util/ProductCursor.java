@@ -0,0 +1,39 @@
+package com.truelanz.catalog.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.truelanz.catalog.services.exceptions.InvalidCursorException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//Token opaco da paginação keyset: chave de ordenação (nome) + id do último produto da página
+@Getter
+@AllArgsConstructor
+public class ProductCursor {
+
+    private Long lastId;
+    private String lastName;
+
+    public String encode() {
+        String raw = lastId + ":" + lastName;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //Cursor vazio = primeira página
+    public static ProductCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            Long id = Long.parseLong(raw.substring(0, separator));
+            return new ProductCursor(id, raw.substring(separator + 1));
+        }
+        catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
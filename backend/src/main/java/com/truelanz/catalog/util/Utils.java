@@ -1,11 +1,15 @@
 package com.truelanz.catalog.util;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.data.jpa.repository.JpaRepository;
+
 import com.truelanz.catalog.projections.IdProjection;
+import com.truelanz.catalog.services.exceptions.ResourceNotFoundException;
 
 public class Utils {
 
@@ -23,4 +27,23 @@ public class Utils {
 
         return result;
     }
+
+    //Todas as entidades referenciadas em uma única consulta (IN), na ordem dos ids; informa todos os ids inexistentes de uma vez
+    public static <T extends IdProjection<ID>, ID> List<T> findAllById(JpaRepository<T, ID> repository, Collection<ID> ids, String resourceName) {
+        List<ID> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<ID, T> found = new HashMap<>();
+        for (T entity : repository.findAllById(distinctIds)) {
+            found.put(entity.getId(), entity);
+        }
+
+        List<ID> missing = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException(resourceName + " not found: " + missing);
+        }
+        return distinctIds.stream().map(found::get).toList();
+    }
 }
@@ -0,0 +1,13 @@
+-- Índices do catálogo para o banco PostgreSQL (ddl-auto=none no perfil dev).
+-- Executar manualmente no banco do perfil dev.
+
+-- Paginação keyset em GET /products?cursor= (ORDER BY name, id)
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON tb_product (name, id);
+
+-- Busca por nome com LIKE '%termo%': índice trigram (pg_trgm) torna o LIKE indexável
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON tb_product USING GIN (LOWER(name) gin_trgm_ops);
+
+-- Busca full-text (search.full-text.enabled=true): mesma expressão usada em ProductRepositoryImpl
+CREATE INDEX IF NOT EXISTS idx_product_search_tsv ON tb_product
+    USING GIN (to_tsvector('simple', name || ' ' || COALESCE(description, '')));
@@ -0,0 +1,50 @@
+-- Tabela do JdbcOAuth2AuthorizationService (security.authorization-store=jdbc) para o banco PostgreSQL.
+-- Executar manualmente no banco do perfil dev antes de subir a aplicação com o store jdbc.
+-- Mesmo esquema do oauth2-authorization-schema.sql do Spring Authorization Server, com 'text' no lugar de 'blob'.
+
+CREATE TABLE IF NOT EXISTS oauth2_authorization (
+    id varchar(100) NOT NULL,
+    registered_client_id varchar(100) NOT NULL,
+    principal_name varchar(200) NOT NULL,
+    authorization_grant_type varchar(100) NOT NULL,
+    authorized_scopes varchar(1000) DEFAULT NULL,
+    attributes text DEFAULT NULL,
+    state varchar(500) DEFAULT NULL,
+    authorization_code_value text DEFAULT NULL,
+    authorization_code_issued_at timestamp DEFAULT NULL,
+    authorization_code_expires_at timestamp DEFAULT NULL,
+    authorization_code_metadata text DEFAULT NULL,
+    access_token_value text DEFAULT NULL,
+    access_token_issued_at timestamp DEFAULT NULL,
+    access_token_expires_at timestamp DEFAULT NULL,
+    access_token_metadata text DEFAULT NULL,
+    access_token_type varchar(100) DEFAULT NULL,
+    access_token_scopes varchar(1000) DEFAULT NULL,
+    oidc_id_token_value text DEFAULT NULL,
+    oidc_id_token_issued_at timestamp DEFAULT NULL,
+    oidc_id_token_expires_at timestamp DEFAULT NULL,
+    oidc_id_token_metadata text DEFAULT NULL,
+    refresh_token_value text DEFAULT NULL,
+    refresh_token_issued_at timestamp DEFAULT NULL,
+    refresh_token_expires_at timestamp DEFAULT NULL,
+    refresh_token_metadata text DEFAULT NULL,
+    user_code_value text DEFAULT NULL,
+    user_code_issued_at timestamp DEFAULT NULL,
+    user_code_expires_at timestamp DEFAULT NULL,
+    user_code_metadata text DEFAULT NULL,
+    device_code_value text DEFAULT NULL,
+    device_code_issued_at timestamp DEFAULT NULL,
+    device_code_expires_at timestamp DEFAULT NULL,
+    device_code_metadata text DEFAULT NULL,
+    PRIMARY KEY (id)
+);
+
+-- findByToken (introspecção, revogação, refresh): busca por igualdade no valor do token.
+-- HASH e não B-tree: um JWT pode passar do limite de tamanho de chave do B-tree.
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_access_token ON oauth2_authorization USING HASH (access_token_value);
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_refresh_token ON oauth2_authorization USING HASH (refresh_token_value);
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_code ON oauth2_authorization USING HASH (authorization_code_value);
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_state ON oauth2_authorization (state);
+
+-- Limpeza periódica (AuthorizationPurgeService): autorizações com tokens expirados
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_access_expires ON oauth2_authorization (access_token_expires_at);
@@ -0,0 +1,32 @@
+-- Alterações de esquema para o banco PostgreSQL (ddl-auto=none no perfil dev).
+-- Executar manualmente no banco do perfil dev, na ordem.
+
+-- Versão do produto (@Version): ETag de GET /products/{id}
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+-- Outbox de emails (EmailOutboxService): mensagens gravadas na transação e entregues por workers
+CREATE TABLE IF NOT EXISTS tb_outbox_email (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    sent_at TIMESTAMP WITHOUT TIME ZONE
+);
+-- Envios pendentes e vencidos, em ordem de próxima tentativa
+CREATE INDEX IF NOT EXISTS idx_outbox_email_status_next ON tb_outbox_email (status, next_attempt_at);
+-- Corpo apagado depois do envio (link de recuperação de senha em texto puro)
+ALTER TABLE tb_outbox_email ALTER COLUMN body DROP NOT NULL;
+UPDATE tb_outbox_email SET body = NULL WHERE status IN ('SENT', 'FAILED') AND body IS NOT NULL;
+
+-- Tokens de recuperação de senha: coluna token passa a guardar o SHA-256 do token (tokens antigos deixam de valer).
+-- Só apaga os antigos (UUID em texto puro): o hash é base64url de 43 caracteres, reexecutar não apaga tokens válidos.
+-- Busca por token, contagem de tokens válidos por email e limpeza dos expirados (PasswordRecoverPurgeService)
+DELETE FROM tb_password_recover WHERE token !~ '^[A-Za-z0-9_-]{43}$';
+CREATE UNIQUE INDEX IF NOT EXISTS idx_password_recover_token ON tb_password_recover (token);
+CREATE INDEX IF NOT EXISTS idx_password_recover_email_expiration ON tb_password_recover (email, expiration);
+CREATE INDEX IF NOT EXISTS idx_password_recover_expiration ON tb_password_recover (expiration);
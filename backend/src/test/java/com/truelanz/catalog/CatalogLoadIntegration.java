@@ -0,0 +1,248 @@
+package com.truelanz.catalog;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.json.JacksonJsonParser;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.truelanz.catalog.util.CatalogDataGenerator;
+
+//Teste de carga: catálogo gerado pelo perfil datagen (load.products), requisições HTTP reais em load.concurrency threads, p50/p99/p999 por cenário.
+//Só roda com o perfil Maven load (mvn test -Pload); ver parâmetros load.* abaixo. Relatório em target/load-report.json;
+//com load.baseline=<relatório anterior>, falha se o p99 piorar mais que load.max-regression
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:loaddb", //Banco separado: não interfere nos outros testes
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false",
+    "datagen.products=${load.products:100000}",
+    "datagen.seed=${load.seed:42}",
+    "datagen.categories=200",
+    "datagen.users=1000"
+})
+@ActiveProfiles({"test", "datagen"})
+@EnabledIfSystemProperty(named = "load", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CatalogLoadIntegration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogLoadIntegration.class);
+
+    private static final String[] USERS = {"alex@gmail.com", "maria@gmail.com", "ironiadesenhada@gmail.com"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${load.concurrency:16}")
+    private int concurrency;
+
+    @Value("${load.requests:2000}")
+    private int requests;
+
+    @Value("${load.token-requests:200}") //Login é limitado pelo BCrypt: menos requisições
+    private int tokenRequests;
+
+    @Value("${load.warmup:200}")
+    private int warmup;
+
+    @Value("${load.slo.search-p99-ms:2000}")
+    private long searchP99;
+
+    @Value("${load.slo.find-by-id-p99-ms:200}")
+    private long findByIdP99;
+
+    @Value("${load.slo.token-p99-ms:3000}")
+    private long tokenP99;
+
+    @Value("${load.slo.me-p99-ms:200}")
+    private long meP99;
+
+    @Value("${load.baseline:}")
+    private String baseline;
+
+    @Value("${load.max-regression:0.2}")
+    private double maxRegression;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+    private final List<String> tokens = new ArrayList<>();
+    private long productCount;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        productCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product", Long.class);
+
+        for (String user : USERS) {
+            HttpResponse<String> response = httpClient.send(tokenRequest(user), HttpResponse.BodyHandlers.ofString());
+            tokens.add(new JacksonJsonParser().parseMap(response.body()).get("access_token").toString());
+        }
+    }
+
+    @Test
+    public void searchProducts() throws Exception {
+        run("search", requests, searchP99, i -> get("/products?size=12&page=" + (i % 5)
+            + "&name=" + CatalogDataGenerator.WORDS[i % CatalogDataGenerator.WORDS.length].toLowerCase(), null));
+    }
+
+    @Test
+    public void findProductById() throws Exception {
+        run("findById", requests, findByIdP99, i -> get("/products/" + (1 + (i * 7919L) % productCount), null));
+    }
+
+    @Test
+    public void obtainToken() throws Exception {
+        run("token", tokenRequests, tokenP99, i -> tokenRequest(USERS[i % USERS.length]));
+    }
+
+    @Test
+    public void findMe() throws Exception {
+        run("me", requests, meP99, i -> get("/users/me", tokens.get(i % tokens.size())));
+    }
+
+    @AfterAll
+    void writeReport() throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("products", productCount);
+        result.put("concurrency", concurrency);
+        result.put("scenarios", report);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File("target/load-report.json"), result);
+    }
+
+    private void run(String scenario, int count, long sloP99Ms, IntFunction<HttpRequest> requestFactory) throws Exception {
+        execute(Math.min(warmup, count), requestFactory, null); //Aquecimento: JIT, caches, pool de conexões
+
+        long[] latencies = new long[count];
+        long start = System.nanoTime();
+        int errors = execute(count, requestFactory, latencies);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", count);
+        stats.put("errors", errors);
+        stats.put("throughput", Math.round(count / seconds));
+        stats.put("p50Ms", percentileMs(latencies, 0.50));
+        stats.put("p99Ms", percentileMs(latencies, 0.99));
+        stats.put("p999Ms", percentileMs(latencies, 0.999));
+        report.put(scenario, stats);
+        logger.info("Carga {}: {}", scenario, stats);
+
+        Assertions.assertEquals(0, errors, scenario + ": requests failed");
+        double p99 = (double) stats.get("p99Ms");
+        Assertions.assertTrue(p99 <= sloP99Ms, scenario + ": p99 " + p99 + " ms above SLO " + sloP99Ms + " ms");
+        Double baselineP99 = baselineP99(scenario);
+        if (baselineP99 != null) {
+            Assertions.assertTrue(p99 <= baselineP99 * (1 + maxRegression),
+                scenario + ": p99 " + p99 + " ms regressed from baseline " + baselineP99 + " ms");
+        }
+    }
+
+    //Cada thread pega o próximo índice até count; latencies == null descarta as medições (aquecimento)
+    private int execute(int count, IntFunction<HttpRequest> requestFactory, long[] latencies) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < concurrency; t++) {
+                futures.add(executor.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < count) {
+                        HttpRequest request = requestFactory.apply(i);
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (latencies != null) {
+                            latencies[i] = System.nanoTime() - start;
+                        }
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return errors.get();
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        int index = Math.max((int) Math.ceil(percentile * sorted.length) - 1, 0);
+        return Math.round(sorted[index] / 10_000.0) / 100.0;
+    }
+
+    private Double baselineP99(String scenario) throws IOException {
+        if (baseline.isBlank()) {
+            return null;
+        }
+        JsonNode p99 = new ObjectMapper().readTree(new File(baseline)).path("scenarios").path(scenario).path("p99Ms");
+        return p99.isMissingNode() ? null : p99.asDouble();
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Accept", "application/json")
+            .GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest tokenRequest(String username) {
+        String basic = Base64.getEncoder().encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/oauth2/token"))
+            .header("Authorization", "Basic " + basic)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString("grant_type=password&username=" + URLEncoder.encode(username, StandardCharsets.UTF_8) + "&password=123456"))
+            .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class) //Teste de Unidade
+public class CachingJwtDecoderTests {
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private TokenDenylist tokenDenylist;
+    private CachingJwtDecoder decoder;
+    private Jwt jwt;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tokenDenylist = new TokenDenylist(true, 100);
+        decoder = new CachingJwtDecoder(delegate, tokenDenylist, 100);
+        jwt = jwt("valid-token", Instant.now().plus(1, ChronoUnit.HOURS));
+
+        Mockito.when(delegate.decode("valid-token")).thenReturn(jwt);
+        Mockito.when(delegate.decode("invalid-token")).thenThrow(new BadJwtException("Invalid signature"));
+    }
+
+    @Test
+    public void decodeShouldVerifyTokenOnlyOnceWhenCalledTwice() {
+
+        Assertions.assertSame(jwt, decoder.decode("valid-token"));
+        Assertions.assertSame(jwt, decoder.decode("valid-token"));
+
+        Mockito.verify(delegate, Mockito.times(1)).decode("valid-token");
+        Assertions.assertEquals(1, decoder.getCache().stats().hitCount());
+    }
+
+    @Test
+    public void decodeShouldNotCacheInvalidToken() {
+
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("invalid-token"));
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("invalid-token"));
+
+        Mockito.verify(delegate, Mockito.times(2)).decode("invalid-token");
+    }
+
+    @Test
+    public void decodeShouldThrowBadJwtExceptionWhenCachedTokenIsRevoked() {
+
+        decoder.decode("valid-token");
+        tokenDenylist.revoke(jwt.getId(), jwt.getExpiresAt());
+
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("valid-token"));
+    }
+
+    @Test
+    public void decodeShouldVerifyAgainWhenTokenExpired() {
+
+        Jwt expired = jwt("expired-token", Instant.now().minusSeconds(1));
+        Mockito.when(delegate.decode("expired-token")).thenReturn(expired);
+
+        decoder.decode("expired-token");
+        decoder.decode("expired-token");
+
+        Mockito.verify(delegate, Mockito.times(2)).decode("expired-token");
+    }
+
+    private static Jwt jwt(String tokenValue, Instant expiresAt) {
+        return Jwt.withTokenValue(tokenValue)
+            .header("alg", "RS256")
+            .jti(tokenValue + "-id")
+            .issuedAt(expiresAt.minus(2, ChronoUnit.HOURS))
+            .expiresAt(expiresAt)
+            .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+//Teste de Unidade do store em memória
+public class CaffeineOAuth2AuthorizationServiceTests {
+
+    private CaffeineOAuth2AuthorizationService authorizationService;
+    private RegisteredClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authorizationService = new CaffeineOAuth2AuthorizationService(100, Duration.ofMinutes(5));
+        client = RegisteredClient.withId("myclientid")
+            .clientId("myclientid")
+            .authorizationGrantType(new AuthorizationGrantType("password"))
+            .build();
+    }
+
+    @Test
+    public void findByTokenShouldReturnAuthorizationWhenTokenMatchesType() {
+
+        OAuth2Authorization authorization = authorization("token-1", Instant.now());
+        authorizationService.save(authorization);
+
+        Assertions.assertSame(authorization, authorizationService.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN));
+        Assertions.assertSame(authorization, authorizationService.findByToken("token-1", null));
+        Assertions.assertNull(authorizationService.findByToken("token-1", OAuth2TokenType.REFRESH_TOKEN));
+        Assertions.assertSame(authorization, authorizationService.findById(authorization.getId()));
+    }
+
+    @Test
+    public void removeShouldDeleteAuthorizationAndTokenIndex() {
+
+        OAuth2Authorization authorization = authorization("token-1", Instant.now());
+        authorizationService.save(authorization);
+
+        authorizationService.remove(authorization);
+
+        Assertions.assertNull(authorizationService.findById(authorization.getId()));
+        Assertions.assertNull(authorizationService.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    @Test
+    public void saveShouldNotKeepAuthorizationWhenTokenAlreadyExpired() {
+
+        OAuth2Authorization authorization = authorization("expired", Instant.now().minus(2, ChronoUnit.HOURS));
+        authorizationService.save(authorization);
+
+        Assertions.assertNull(authorizationService.findById(authorization.getId()));
+        Assertions.assertEquals(0, authorizationService.size());
+    }
+
+    @Test
+    public void saveShouldReplaceTokenIndexWhenAuthorizationIsUpdated() {
+
+        OAuth2Authorization authorization = authorization("token-1", Instant.now());
+        authorizationService.save(authorization);
+        OAuth2Authorization updated = OAuth2Authorization.from(authorization)
+            .accessToken(accessToken("token-2", Instant.now()))
+            .build();
+
+        authorizationService.save(updated);
+
+        Assertions.assertNull(authorizationService.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN));
+        Assertions.assertSame(updated, authorizationService.findByToken("token-2", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    private OAuth2Authorization authorization(String tokenValue, Instant issuedAt) {
+        return OAuth2Authorization.withRegisteredClient(client)
+            .principalName("maria@gmail.com")
+            .authorizationGrantType(new AuthorizationGrantType("password"))
+            .accessToken(accessToken(tokenValue, issuedAt))
+            .build();
+    }
+
+    private static OAuth2AccessToken accessToken(String tokenValue, Instant issuedAt) {
+        return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue, issuedAt, issuedAt.plus(1, ChronoUnit.HOURS));
+    }
+}
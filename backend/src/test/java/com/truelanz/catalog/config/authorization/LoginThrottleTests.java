@@ -0,0 +1,58 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+//Teste de Unidade do limite de falhas de login
+public class LoginThrottleTests {
+
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        loginThrottle = new LoginThrottle(3, 5, Duration.ofMinutes(15), 100);
+    }
+
+    @Test
+    public void checkAllowedShouldThrowLoginThrottledExceptionWhenAccountReachesMaxFailures() {
+
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.checkAllowed("maria@gmail.com", "10.0.0.1");
+            loginThrottle.failed("Maria@gmail.com", "10.0.0.1");
+        }
+
+        LoginThrottledException exception = Assertions.assertThrows(LoginThrottledException.class, () -> {
+            loginThrottle.checkAllowed("maria@gmail.com", "10.0.0.2");
+        });
+        Assertions.assertTrue(exception.getRetryAfterSeconds() > 0);
+        Assertions.assertDoesNotThrow(() -> loginThrottle.checkAllowed("alex@gmail.com", "10.0.0.1"));
+    }
+
+    @Test
+    public void checkAllowedShouldThrowLoginThrottledExceptionWhenAddressReachesMaxFailures() {
+
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.failed("user" + i + "@gmail.com", "10.0.0.1");
+        }
+
+        Assertions.assertThrows(LoginThrottledException.class, () -> {
+            loginThrottle.checkAllowed("alex@gmail.com", "10.0.0.1");
+        });
+        Assertions.assertDoesNotThrow(() -> loginThrottle.checkAllowed("alex@gmail.com", "10.0.0.2"));
+    }
+
+    @Test
+    public void succeededShouldResetAccountFailures() {
+
+        loginThrottle.failed("maria@gmail.com", "10.0.0.1");
+        loginThrottle.failed("maria@gmail.com", "10.0.0.1");
+        loginThrottle.succeeded("maria@gmail.com");
+        loginThrottle.failed("maria@gmail.com", "10.0.0.1");
+        loginThrottle.failed("maria@gmail.com", "10.0.0.1");
+
+        Assertions.assertDoesNotThrow(() -> loginThrottle.checkAllowed("maria@gmail.com", "10.0.0.1"));
+    }
+}
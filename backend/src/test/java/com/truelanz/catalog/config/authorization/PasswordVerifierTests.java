@@ -0,0 +1,78 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+
+//Teste de Unidade do pool de verificação de senha
+public class PasswordVerifierTests {
+
+    private CountDownLatch release;
+    private PasswordVerifier passwordVerifier;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        release = new CountDownLatch(1);
+        //Encoder que só responde depois de release: mantém a thread do pool ocupada
+        PasswordEncoder blockingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        passwordVerifier = new PasswordVerifier(blockingEncoder, 1, 1, Duration.ofSeconds(5));
+        callers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        passwordVerifier.shutdown();
+    }
+
+    @Test
+    public void matchesShouldReturnEncoderResult() {
+
+        release.countDown();
+
+        Assertions.assertTrue(passwordVerifier.matches("123456", "123456"));
+        Assertions.assertFalse(passwordVerifier.matches("123456", "654321"));
+    }
+
+    @Test
+    public void matchesShouldThrowTemporarilyUnavailableWhenPoolAndQueueAreFull() throws Exception {
+
+        callers.submit(() -> passwordVerifier.matches("a", "a")); //ocupa a thread
+        callers.submit(() -> passwordVerifier.matches("b", "b")); //ocupa a fila
+        while (passwordVerifier.getActiveCount() < 1 || passwordVerifier.getQueueSize() < 1) {
+            Thread.sleep(10);
+        }
+
+        OAuth2AuthenticationException exception = Assertions.assertThrows(OAuth2AuthenticationException.class, () -> {
+            passwordVerifier.matches("c", "c");
+        });
+        Assertions.assertEquals(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE, exception.getError().getErrorCode());
+    }
+}
@@ -0,0 +1,111 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+
+//Teste de Unidade do JWK Set em arquivo com rotação
+public class RotatingJwkSourceTests {
+
+    //Intervalo negativo: toda chamada a refresh() gera uma chave nova
+    private static final Duration ALWAYS = Duration.ofSeconds(-1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void newInstanceShouldReuseKeysFromFile() {
+
+        Path file = dir.resolve("jwks.json");
+        RotatingJwkSource first = new RotatingJwkSource("RS256", file, Duration.ofDays(30), Duration.ofHours(1));
+        RotatingJwkSource second = new RotatingJwkSource("RS256", file, Duration.ofDays(30), Duration.ofHours(1));
+
+        Assertions.assertTrue(Files.exists(file));
+        Assertions.assertEquals(first.currentKeyId(), second.currentKeyId());
+        Assertions.assertEquals(1, second.getKeys().size());
+    }
+
+    @Test
+    public void refreshShouldRotateAndKeepPreviousKeyForVerification() {
+
+        RotatingJwkSource source = new RotatingJwkSource("RS256", dir.resolve("jwks.json"), ALWAYS, Duration.ofHours(1));
+        String previous = source.currentKeyId();
+
+        source.refresh();
+
+        Assertions.assertNotEquals(previous, source.currentKeyId());
+        Assertions.assertEquals(2, source.getKeys().size());
+        Assertions.assertNotNull(find(source, previous));
+    }
+
+    @Test
+    public void refreshShouldRemoveKeysRetiredLongerThanRetention() {
+
+        RotatingJwkSource source = new RotatingJwkSource("RS256", null, ALWAYS, Duration.ofSeconds(-1));
+
+        source.refresh();
+        source.refresh();
+
+        Assertions.assertEquals(1, source.getKeys().size());
+    }
+
+    @Test
+    public void getShouldLoadKeyRotatedByAnotherInstance() {
+
+        Path file = dir.resolve("jwks.json");
+        RotatingJwkSource rotating = new RotatingJwkSource("RS256", file, ALWAYS, Duration.ofHours(1));
+        RotatingJwkSource other = new RotatingJwkSource("RS256", file, Duration.ofDays(30), Duration.ofHours(1));
+
+        rotating.refresh();
+
+        Assertions.assertNotNull(find(other, rotating.currentKeyId()));
+    }
+
+    @Test //kid falso recarrega o arquivo uma vez; os seguintes no mesmo intervalo não tocam no disco
+    public void getShouldReloadFileAtMostOncePerIntervalWhenKidIsUnknown() {
+
+        Path file = dir.resolve("jwks.json");
+        RotatingJwkSource rotating = new RotatingJwkSource("RS256", file, ALWAYS, Duration.ofHours(1));
+        RotatingJwkSource other = new RotatingJwkSource("RS256", file, Duration.ofDays(30), Duration.ofHours(1),
+            Duration.ofHours(1));
+
+        Assertions.assertNull(find(other, "bogus-kid"));
+        rotating.refresh();
+
+        Assertions.assertNull(find(other, rotating.currentKeyId()));
+    }
+
+    @Test
+    public void es256ShouldGenerateP256Key() {
+
+        RotatingJwkSource source = new RotatingJwkSource("ES256", null, Duration.ofDays(30), Duration.ofHours(1));
+
+        JWK key = find(source, source.currentKeyId());
+        Assertions.assertInstanceOf(ECKey.class, key);
+        Assertions.assertEquals(Curve.P_256, ((ECKey) key).getCurve());
+    }
+
+    @Test
+    public void constructorShouldThrowIllegalStateExceptionWhenAlgorithmIsNotSupported() {
+
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            new RotatingJwkSource("HS256", null, Duration.ofDays(30), Duration.ofHours(1));
+        });
+    }
+
+    private static JWK find(RotatingJwkSource source, String keyId) {
+        List<JWK> keys = source.get(new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build()), null);
+        return keys.isEmpty() ? null : keys.get(0);
+    }
+}
@@ -0,0 +1,40 @@
+package com.truelanz.catalog.config.authorization;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class) //Teste de Unidade
+public class TokenDenylistTests {
+
+    @Test //cheio: recusa a nova revogação, as anteriores continuam valendo
+    public void revokeShouldRefuseInsteadOfEvictingWhenFull() {
+
+        TokenDenylist denylist = new TokenDenylist(true, 2);
+        Instant exp = Instant.now().plusSeconds(3600);
+
+        Assertions.assertTrue(denylist.revoke("jti-1", exp));
+        Assertions.assertTrue(denylist.revoke("jti-2", exp));
+        Assertions.assertFalse(denylist.revoke("jti-3", exp));
+
+        Assertions.assertTrue(denylist.isRevoked("jti-1"));
+        Assertions.assertTrue(denylist.isRevoked("jti-2"));
+        Assertions.assertFalse(denylist.isRevoked("jti-3"));
+        Assertions.assertTrue(denylist.revoke("jti-1", exp));
+    }
+
+    @Test //jti já expirados liberam espaço
+    public void revokeShouldAcceptWhenExpiredEntriesFreeSpace() throws Exception {
+
+        TokenDenylist denylist = new TokenDenylist(true, 1);
+        Assertions.assertTrue(denylist.revoke("jti-1", Instant.now().plusMillis(100)));
+
+        Thread.sleep(200);
+
+        Assertions.assertTrue(denylist.revoke("jti-2", Instant.now().plusSeconds(3600)));
+        Assertions.assertTrue(denylist.isRevoked("jti-2"));
+    }
+}
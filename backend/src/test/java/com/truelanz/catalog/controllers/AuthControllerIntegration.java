@@ -0,0 +1,134 @@
+package com.truelanz.catalog.controllers;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.truelanz.catalog.entities.OutboxEmail;
+import com.truelanz.catalog.repositories.OutboxEmailRepository;
+import com.truelanz.catalog.repositories.PasswordRecoverRepository;
+import com.truelanz.catalog.tests.TokenUtil;
+
+//Modo stateless (security.authorization-store=none): revogação só pelo denylist de jti
+@SpringBootTest(properties = "security.authorization-store=none")
+@AutoConfigureMockMvc
+@Transactional
+public class AuthControllerIntegration {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private OAuth2AuthorizationService authorizationService;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private PasswordRecoverRepository passwordRecoverRepository;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+    }
+
+    @Test //login stateless emite o JWT sem gravar autorização
+    public void loginShouldNotStoreAuthorizationWhenStateless() throws Exception {
+
+        Assertions.assertNull(authorizationService.findByToken(token, OAuth2TokenType.ACCESS_TOKEN));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/me")
+            .header("Authorization", "Bearer " + token)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.email").value("maria@gmail.com"));
+    }
+
+    @Test //depois do logout o mesmo token é rejeitado; outro token do mesmo usuário continua valendo
+    public void logoutShouldRevokeOnlyCurrentToken() throws Exception {
+
+        String otherToken = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/logout")
+            .header("Authorization", "Bearer " + token))
+            .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/me")
+            .header("Authorization", "Bearer " + token)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/me")
+            .header("Authorization", "Bearer " + otherToken)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void logoutShouldReturnUnauthorizedWhenNoToken() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/logout"))
+            .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test //banco guarda só o hash; o token do email troca a senha uma única vez
+    public void newPasswordShouldAcceptTokenSentByEmailOnlyOnce() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/recover-token")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\": \"alex@gmail.com\"}"))
+            .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        OutboxEmail email = outboxEmailRepository.findAll().stream()
+            .max(Comparator.comparing(OutboxEmail::getId)).get();
+        String recoverToken = email.getBody().split("recover-password/")[1].split("\\s")[0];
+        Assertions.assertTrue(passwordRecoverRepository.searchValidTokens(recoverToken, Instant.now()).isEmpty());
+
+        String newPassword = "{\"token\": \"" + recoverToken + "\", \"password\": \"newpassword\"}";
+        mockMvc.perform(MockMvcRequestBuilders.put("/auth/new-password")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(newPassword))
+            .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "newpassword");
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/auth/new-password")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(newPassword))
+            .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test //max-valid-tokens (3) pedidos ainda válidos para o mesmo email: 429
+    public void recoverTokenShouldReturnTooManyRequestsWhenEmailHasTooManyValidTokens() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/auth/recover-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"ironiadesenhada@gmail.com\"}"))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/recover-token")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\": \"ironiadesenhada@gmail.com\"}"))
+            .andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,37 @@
+package com.truelanz.catalog.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class CategoryControllerIntegration {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test //findAll needs to return ETag and Last-Modified, and 304 when If-None-Match matches
+    public void findAllShouldReturnNotModifiedWhenETagMatches() throws Exception{
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/categories")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+            .andExpect(MockMvcResultMatchers.header().exists("ETag"))
+            .andExpect(MockMvcResultMatchers.header().exists("Last-Modified"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/categories")
+            .header("If-None-Match", etag)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isNotModified());
+    }
+}
@@ -0,0 +1,99 @@
+package com.truelanz.catalog.controllers;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.truelanz.catalog.tests.TokenUtil;
+
+//Métricas ficam desligadas nos testes por padrão: @AutoConfigureObservability liga o registro Prometheus
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsEndpointIntegration {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    @Test
+    public void prometheusShouldExposeStageTokenPasswordAndRepositoryTimers() throws Exception {
+        tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+        mockMvc.perform(MockMvcRequestBuilders.post("/oauth2/token")
+                .param("grant_type", "password")
+                .param("username", "alex@gmail.com")
+                .param("password", "wrong")
+                .with(httpBasic(clientId, clientSecret)))
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?name=PC"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?cursor=&withCount=true"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/products/1"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+
+        String adminToken = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+        String body = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        for (String stage : new String[] {"page-query", "dto-mapping", "search-query", "fetch-categories", "reorder", "count-query"}) {
+            assertSeries(body, "catalog_product_search_seconds_count", "stage=\"" + stage + "\"");
+        }
+        assertSeries(body, "catalog_product_search_seconds_bucket", "stage=\"page-query\"");
+        assertSeries(body, "catalog_token_issue_seconds_count", "outcome=\"success\"");
+        assertSeries(body, "catalog_token_issue_seconds_count", "outcome=\"invalid_credentials\"");
+        assertSeries(body, "catalog_password_hash_seconds_count", "operation=\"matches\"");
+        assertSeries(body, "executor_active_threads", "name=\"password-verifier\"");
+        assertSeries(body, "spring_data_repository_invocations_seconds_count", "repository=\"ProductRepository\"");
+        assertSeries(body, "http_server_requests_seconds_count", "uri=\"/products/{id}\"");
+        Assertions.assertFalse(body.contains("uri=\"/products/1\""), "Raw URIs must not become tag values");
+    }
+
+    @Test
+    public void prometheusShouldReturnUnauthorizedWhenNoToken() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+            .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void prometheusShouldReturnForbiddenWhenOperatorLogged() throws Exception {
+        String operatorToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+                .header("Authorization", "Bearer " + operatorToken))
+            .andExpect(MockMvcResultMatchers.status().isForbidden());
+    }
+
+    @Test
+    public void healthShouldBePublic() throws Exception {
+        //Sem SMTP nos testes o health de email fica DOWN (503): basta responder sem exigir token
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.status").exists());
+    }
+
+    private static void assertSeries(String body, String name, String label) {
+        boolean found = Arrays.stream(body.split("\n"))
+            .anyMatch(line -> line.startsWith(name + "{") && line.contains(label));
+        Assertions.assertTrue(found, "Missing series " + name + " with " + label);
+    }
+}
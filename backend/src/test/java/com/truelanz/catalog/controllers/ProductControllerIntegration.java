@@ -1,5 +1,8 @@
 package com.truelanz.catalog.controllers;
 
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -15,8 +19,11 @@ import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.truelanz.catalog.dto.ProductDTO;
 import com.truelanz.catalog.tests.Factory;
+import com.truelanz.catalog.tests.SqlAssertions;
 import com.truelanz.catalog.tests.TokenUtil;
 
+import jakarta.persistence.EntityManager;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 @Transactional
@@ -31,6 +38,9 @@ public class ProductControllerIntegration {
     @Autowired
     private TokenUtil tokenUtil;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Long existingId;
     private Long nonExistingId;
     private Long countToltalProducts;
@@ -57,6 +67,226 @@ public class ProductControllerIntegration {
             .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(countToltalProducts));
     }
     
+    @Test //a search page (products, total and categories) needs a single SQL statement; the cursor page needs two
+    public void findAllShouldNotIssueOneQueryPerProduct() throws Exception{
+
+        //Login do setUp pode deixar o rehash da senha pendente na transação do teste: não conta para a busca
+        entityManager.flush();
+        SqlAssertions.assertMaxStatements(1, () -> mockMvc.perform(MockMvcRequestBuilders.get("/products?page=0&size=12")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].categories").isNotEmpty()));
+
+        SqlAssertions.assertMaxStatements(2, () -> mockMvc.perform(MockMvcRequestBuilders.get("/products?cursor=&size=12")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].categories").isNotEmpty()));
+    }
+
+    @Test //findAll sorted by relevance needs to return the exact name match first
+    public void findAllShouldReturnExactMatchFirstWhenSortByRelevance() throws Exception{
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?name=pc gamer&page=0&size=5&sort=relevance")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("PC Gamer"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].categories").isNotEmpty())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(21L));
+    }
+
+    @Test //findAll with count=none must not return the total, only whether there is a next page
+    public void findAllShouldReturnSliceWithoutTotalWhenCountIsNone() throws Exception{
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?page=2&size=10&sort=name,asc&count=none")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(5))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.last").value(true))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test //findAll with count=estimated returns a total (exact on H2)
+    public void findAllShouldReturnTotalWhenCountIsEstimated() throws Exception{
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?page=0&size=12&count=estimated")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(countToltalProducts));
+    }
+
+    @Test //findAll with an unknown count mode is a bad request
+    public void findAllShouldReturnBadRequestWhenCountIsInvalid() throws Exception{
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?count=maybe")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test //findById needs to return 304 when If-None-Match matches the product ETag
+    public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception{
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+            .header("If-None-Match", etag)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isNotModified())
+            .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test //findById ETag changes after update
+    public void findByIdShouldReturnNewETagWhenProductWasUpdated() throws Exception{
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+            .accept(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getHeader("ETag");
+
+        String jsonBody = objectMapper.writeValueAsString(Factory.createProductDTO());
+        mockMvc.perform(MockMvcRequestBuilders.put("/products/{id}", existingId)
+            .header("Authorization", "Bearer " + token)
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", existingId)
+            .header("If-None-Match", etag)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test //search pages need to return 304 when the page did not change
+    public void findAllShouldReturnNotModifiedWhenETagMatches() throws Exception{
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/products?page=0&size=12&sort=name,asc")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?page=0&size=12&sort=name,asc")
+            .header("If-None-Match", etag)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isNotModified());
+    }
+
+    @Test //export needs to stream one JSON line per product with its categories
+    public void exportShouldStreamNdjsonWithAllProducts() throws Exception{
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/products/export"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(countToltalProducts, lines.length);
+        ProductDTO first = objectMapper.readValue(lines[0], ProductDTO.class);
+        Assertions.assertEquals("The Lord of the Rings", first.getName());
+        Assertions.assertFalse(first.getCategories().isEmpty());
+    }
+
+    @Test //export in CSV applies the same category filter as the search
+    public void exportShouldStreamCsvFilteredByCategory() throws Exception{
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/products/export?format=csv&categoryId=1,2"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("text/csv"))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals("id,name,description,price,imgUrl,date,categories", lines[0]);
+        Assertions.assertEquals(4, lines.length); //cabeçalho + 3 produtos
+        Assertions.assertTrue(lines[2].startsWith("2,Smart TV,"));
+        Assertions.assertTrue(lines[2].endsWith(",1|3"));
+    }
+
+    @Test //batch insert needs to write valid rows and report the invalid ones by row
+    public void insertBatchShouldInsertValidRowsAndReportErrors() throws Exception{
+
+        ProductDTO valid = Factory.createProductDTO();
+        valid.setId(null);
+        valid.setName("Batch Phone");
+        ProductDTO invalid = Factory.createProductDTO();
+        invalid.setName("ab");
+        ProductDTO missingCategory = Factory.createProductDTO();
+        missingCategory.getCategories().get(0).setId(nonExistingId);
+        String jsonBody = objectMapper.writeValueAsString(List.of(valid, invalid, missingCategory));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/products/batch")
+            .header("Authorization", "Bearer " + token)
+            .content(jsonBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(3))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.inserted").value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].row").value(2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].field").value("name"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].row").value(3))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].field").value("categories"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?name=batch phone")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(1L))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].categories[0].id").value(1L));
+    }
+
+    @Test //batch insert from a CSV body (quoted fields, categories separated by |)
+    public void insertBatchShouldReadCsvWhenContentTypeIsCsv() throws Exception{
+
+        String csv = """
+            name,description,price,imgUrl,date,categories
+            "Csv Phone, 128GB","Phone with ""quotes"", commas",800.0,https://img.com/img.png,2020-07-14T10:00:00Z,1|3
+            Csv Broken,Invalid price row,abc,https://img.com/img.png,2020-07-14T10:00:00Z,1
+            """;
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/products/batch")
+            .header("Authorization", "Bearer " + token)
+            .content(csv)
+            .contentType("text/csv")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.inserted").value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].row").value(2));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/products?name=csv phone")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Csv Phone, 128GB"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].description").value("Phone with \"quotes\", commas"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].categories.length()").value(2));
+    }
+
+    @Test //batch insert from an NDJSON body, one product per line
+    public void insertBatchShouldReadNdjsonWhenContentTypeIsNdjson() throws Exception{
+
+        ProductDTO valid = Factory.createProductDTO();
+        valid.setId(null);
+        String ndjson = objectMapper.writeValueAsString(valid) + "\n{not json}\n";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/products/batch")
+            .header("Authorization", "Bearer " + token)
+            .content(ndjson)
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.inserted").value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].row").value(2));
+    }
+
     @Test //update need return product DTO when Id exists
     public void updateShoulddReturnProductDtoWhenIdExists() throws Exception{
 
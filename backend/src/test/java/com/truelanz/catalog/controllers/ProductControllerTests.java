@@ -21,6 +21,8 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.truelanz.catalog.dto.ProductDTO;
+import com.truelanz.catalog.services.ProductExportService;
+import com.truelanz.catalog.services.ProductImportService;
 import com.truelanz.catalog.services.ProductService;
 import com.truelanz.catalog.services.exceptions.DataBaseException;
 import com.truelanz.catalog.services.exceptions.ResourceNotFoundException;
@@ -38,6 +40,12 @@ public class ProductControllerTests {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private ProductExportService productExportService;
+
     private long existingId;
     private long nonExistingId;
     private long dependentId;
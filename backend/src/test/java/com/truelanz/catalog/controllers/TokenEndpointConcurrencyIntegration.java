@@ -0,0 +1,83 @@
+package com.truelanz.catalog.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.json.JacksonJsonParser;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.truelanz.catalog.tests.TokenUtil;
+
+//Sem @Transactional: cada login roda na própria thread, como requisições reais simultâneas
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TokenEndpointConcurrencyIntegration {
+
+    private static final int THREADS = 16;
+    private static final int LOGINS_PER_THREAD = 6;
+
+    //Usuários do import.sql: só a maria tem ROLE_ADMIN
+    private static final String[][] USERS = {
+        {"alex@gmail.com", "ROLE_OPERATOR"},
+        {"maria@gmail.com", "ROLE_OPERATOR,ROLE_ADMIN"},
+        {"ironiadesenhada@gmail.com", "ROLE_OPERATOR"},
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Test //logins simultâneos de usuários diferentes: cada token traz o usuário e as roles de quem pediu
+    public void concurrentLoginsShouldIssueTokensForTheRequestingUser() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < LOGINS_PER_THREAD; i++) {
+                        String[] user = USERS[(thread + i) % USERS.length];
+                        String token = tokenUtil.obtainAccessToken(mockMvc, user[0], "123456");
+                        assertTokenBelongsTo(token, user[0], user[1]);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertTokenBelongsTo(String token, String username, String roles) {
+        String payload = new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+        Map<String, Object> claims = new JacksonJsonParser().parseMap(payload);
+
+        Assertions.assertEquals(username, claims.get("username"));
+        List<String> authorities = (List<String>) claims.get("authorities");
+        Assertions.assertEquals(List.of(roles.split(",")).stream().sorted().toList(),
+            authorities.stream().sorted().toList());
+    }
+}
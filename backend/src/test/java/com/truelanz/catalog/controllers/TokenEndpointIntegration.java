@@ -0,0 +1,87 @@
+package com.truelanz.catalog.controllers;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.truelanz.catalog.config.CacheConfig;
+import com.truelanz.catalog.entities.User;
+import com.truelanz.catalog.repositories.UserRepository;
+import com.truelanz.catalog.tests.TokenUtil;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class TokenEndpointIntegration {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    @Test //hash legado (BCrypt sem prefixo, como no import.sql) é regravado com o encoder atual no login
+    public void loginShouldUpgradeLegacyPasswordHash() throws Exception {
+
+        //Outros testes podem ter feito login com o alex e já atualizado o hash
+        User user = userRepository.findByEmail("alex@gmail.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("123456"));
+        userRepository.saveAndFlush(user);
+        cacheManager.getCache(CacheConfig.USERS).invalidate();
+        Assertions.assertFalse(userRepository.findByEmail("alex@gmail.com").getPassword().startsWith("{bcrypt}"));
+
+        tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+
+        Assertions.assertTrue(userRepository.findByEmail("alex@gmail.com").getPassword().startsWith("{bcrypt}"));
+    }
+
+    @Test //depois de max-account-failures tentativas erradas, 429 sem nem verificar a senha
+    public void loginShouldReturnTooManyRequestsWhenAccountHasTooManyFailures() throws Exception {
+
+        for (int i = 0; i < 5; i++) {
+            login("throttled@gmail.com", "wrong", "10.0.0.10")
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+
+        login("throttled@gmail.com", "wrong", "10.0.0.11")
+            .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+            .andExpect(MockMvcResultMatchers.header().exists("Retry-After"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("too_many_requests"));
+    }
+
+    private ResultActions login(String username, String password, String remoteAddress) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/oauth2/token")
+            .param("grant_type", "password")
+            .param("username", username)
+            .param("password", password)
+            .with(httpBasic(clientId, clientSecret))
+            .with(request -> {
+                request.setRemoteAddr(remoteAddress);
+                return request;
+            }));
+    }
+}
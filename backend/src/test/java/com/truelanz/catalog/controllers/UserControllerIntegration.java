@@ -0,0 +1,86 @@
+package com.truelanz.catalog.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.truelanz.catalog.tests.SqlAssertions;
+import com.truelanz.catalog.tests.TokenUtil;
+
+//Sem @Transactional: o cache de usuários só recebe valores depois do commit
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserControllerIntegration {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void findMeShouldReturnLoggedUserWithRoles() throws Exception {
+
+        String token = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+
+        findMe(token)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(2L))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.firstName").value("Maria"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.lastName").value("Green"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.email").value("maria@gmail.com"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.roles.length()").value(2));
+    }
+
+    @Test //usuário fica no cache de login: /users/me não consulta o banco até o cache ser invalidado
+    public void findMeShouldServeUserFromCacheUntilEvicted() throws Exception {
+
+        String token = tokenUtil.obtainAccessToken(mockMvc, "ironiadesenhada@gmail.com", "123456");
+        findMe(token).andExpect(MockMvcResultMatchers.jsonPath("$.firstName").value("Alan"));
+        try {
+            //Alteração direto no banco, sem passar pelo serviço que invalida o cache
+            jdbcTemplate.update("UPDATE tb_user SET first_name = 'Changed' WHERE email = 'ironiadesenhada@gmail.com'");
+
+            SqlAssertions.assertMaxStatements(0,
+                () -> findMe(token).andExpect(MockMvcResultMatchers.jsonPath("$.firstName").value("Alan")));
+
+            userCache.removeUserFromCache("ironiadesenhada@gmail.com");
+            findMe(token).andExpect(MockMvcResultMatchers.jsonPath("$.firstName").value("Changed"));
+        } finally {
+            jdbcTemplate.update("UPDATE tb_user SET first_name = 'Alan' WHERE email = 'ironiadesenhada@gmail.com'");
+            userCache.removeUserFromCache("ironiadesenhada@gmail.com");
+        }
+    }
+
+    @Test //roles de todos os usuários da página em um único SELECT, não um por usuário (N+1)
+    public void findAllShouldLoadRolesWithoutOneQueryPerUser() throws Exception {
+
+        String token = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+
+        SqlAssertions.assertNoRepeatedStatements(() -> mockMvc.perform(MockMvcRequestBuilders.get("/users?size=10")
+                .header("Authorization", "Bearer " + token)
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].roles.length()").value(2)));
+    }
+
+    private ResultActions findMe(String token) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/users/me")
+            .header("Authorization", "Bearer " + token)
+            .accept(MediaType.APPLICATION_JSON));
+    }
+}
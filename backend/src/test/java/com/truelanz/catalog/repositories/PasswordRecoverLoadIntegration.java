@@ -0,0 +1,72 @@
+package com.truelanz.catalog.repositories;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//Medição de tempo (flutua em máquina carregada): só roda com o perfil Maven load (mvn test -Pload).
+//O uso do índice é garantido em todo build por PasswordRecoverRepositoryTests (EXPLAIN)
+@DataJpaTest
+@EnabledIfSystemProperty(named = "load", matches = "true")
+public class PasswordRecoverLoadIntegration {
+
+    @Autowired
+    private PasswordRecoverRepository passwordRecoverRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Instant now = Instant.now();
+
+    @Test //Tabela 20x maior, tempo de busca praticamente o mesmo (sem índice cresceria junto com a tabela)
+    public void searchValidTokensShouldKeepLookupTimeAsTableGrows() {
+        passwordRecoverRepository.deleteAll();
+        List<String> small = insert(1_000, now.plusSeconds(600));
+        long smallTime = medianLookupNanos(small);
+
+        List<String> large = new ArrayList<>(small);
+        large.addAll(insert(19_000, now.plusSeconds(600)));
+        long largeTime = medianLookupNanos(large);
+
+        Assertions.assertTrue(largeTime < smallTime * 5,
+            "Lookup went from " + smallTime + "ns to " + largeTime + "ns as the table grew 20x");
+    }
+
+    private List<String> insert(int count, Instant expiration) {
+        List<String> tokens = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String token = UUID.randomUUID().toString();
+            tokens.add(token);
+            rows.add(new Object[] {token, "load" + (i % 100) + "@gmail.com", Timestamp.from(expiration)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tb_password_recover (token, email, expiration) VALUES (?, ?, ?)", rows);
+        return tokens;
+    }
+
+    //Mediana depois de aquecer: descarta JIT e pausas de GC isoladas
+    private long medianLookupNanos(List<String> tokens) {
+        for (int i = 0; i < 100; i++) {
+            passwordRecoverRepository.searchValidTokens(tokens.get(i % tokens.size()), now);
+        }
+        long[] times = new long[200];
+        for (int i = 0; i < times.length; i++) {
+            String token = tokens.get((i * 7919) % tokens.size());
+            long start = System.nanoTime();
+            Assertions.assertEquals(1, passwordRecoverRepository.searchValidTokens(token, now).size());
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[times.length / 2];
+    }
+}
@@ -0,0 +1,85 @@
+package com.truelanz.catalog.repositories;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.truelanz.catalog.entities.PasswordRecover;
+
+@DataJpaTest
+public class PasswordRecoverRepositoryTests {
+
+    @Autowired
+    private PasswordRecoverRepository passwordRecoverRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Instant now;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        now = Instant.now();
+        passwordRecoverRepository.deleteAll();
+    }
+
+    @Test
+    public void searchValidTokensShouldReturnOnlyUnexpiredTokenWithSameHash() {
+        passwordRecoverRepository.save(new PasswordRecover(null, "valid", "alex@gmail.com", now.plusSeconds(600)));
+        passwordRecoverRepository.save(new PasswordRecover(null, "expired", "alex@gmail.com", now.minusSeconds(600)));
+
+        Assertions.assertEquals(1, passwordRecoverRepository.searchValidTokens("valid", now).size());
+        Assertions.assertTrue(passwordRecoverRepository.searchValidTokens("expired", now).isEmpty());
+        Assertions.assertTrue(passwordRecoverRepository.searchValidTokens("other", now).isEmpty());
+    }
+
+    @Test
+    public void countValidTokensShouldIgnoreExpiredTokensAndOtherEmails() {
+        passwordRecoverRepository.save(new PasswordRecover(null, "a", "alex@gmail.com", now.plusSeconds(600)));
+        passwordRecoverRepository.save(new PasswordRecover(null, "b", "alex@gmail.com", now.plusSeconds(600)));
+        passwordRecoverRepository.save(new PasswordRecover(null, "c", "alex@gmail.com", now.minusSeconds(600)));
+        passwordRecoverRepository.save(new PasswordRecover(null, "d", "maria@gmail.com", now.plusSeconds(600)));
+
+        Assertions.assertEquals(2, passwordRecoverRepository.countValidTokens("alex@gmail.com", now));
+    }
+
+    @Test
+    public void deleteExpiredShouldDeleteAtMostLimitExpiredRows() {
+        insert(5, now.minusSeconds(600));
+        insert(2, now.plusSeconds(600));
+
+        Assertions.assertEquals(3, passwordRecoverRepository.deleteExpired(now, 3));
+        Assertions.assertEquals(2, passwordRecoverRepository.deleteExpired(now, 3));
+        Assertions.assertEquals(0, passwordRecoverRepository.deleteExpired(now, 3));
+        Assertions.assertEquals(2, passwordRecoverRepository.count());
+    }
+
+    @Test //Plano do H2 usa o índice do token: a busca não percorre a tabela
+    public void searchValidTokensShouldUseTokenIndex() {
+        String plan = jdbcTemplate.queryForObject(
+            "EXPLAIN SELECT * FROM tb_password_recover WHERE token = 'x' AND expiration > CURRENT_TIMESTAMP", String.class);
+
+        Assertions.assertTrue(plan.toUpperCase().contains("IDX_PASSWORD_RECOVER_TOKEN"), plan);
+    }
+
+    private List<String> insert(int count, Instant expiration) {
+        List<String> tokens = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String token = UUID.randomUUID().toString();
+            tokens.add(token);
+            rows.add(new Object[] {token, "load" + (i % 100) + "@gmail.com", Timestamp.from(expiration)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tb_password_recover (token, email, expiration) VALUES (?, ?, ?)", rows);
+        return tokens;
+    }
+}
@@ -1,5 +1,7 @@
 package com.truelanz.catalog.repositories;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
@@ -7,6 +9,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import com.truelanz.catalog.entities.Product;
 import com.truelanz.catalog.tests.Factory;
@@ -16,6 +21,9 @@ public class ProductRepositoriesTests {
 
     @Autowired
     private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     
     private long existingId;
     private long countTotalProducts = 25L;
@@ -56,4 +64,16 @@ public class ProductRepositoriesTests {
         Optional<Product> result = productRepository.findById(26L);
         Assertions.assertFalse(result.isPresent());
     }
+
+    @Test //Plano do H2 da consulta real do cursor: leitura do índice começa no (nome, id) do cursor, sem percorrer do início
+    public void searchProductsAfterShouldSeekNameIdIndexFromCursor() throws Exception {
+        String sql = ProductRepository.class.getMethod("searchProductsAfter", List.class, String.class, String.class,
+            Long.class, int.class).getAnnotation(Query.class).value()
+            .replace("IN :categoryIds", "IN (:categoryIds)"); //Hibernate põe os parênteses da lista; o JDBC não
+        Map<String, Object> params = Map.of("categoryIds", List.of(1L), "name", "", "lastName", "PC Gamer", "lastId", 5L, "limit", 13);
+
+        String plan = new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject("EXPLAIN " + sql, params, String.class);
+
+        Assertions.assertTrue(plan.toUpperCase().contains("IDX_PRODUCT_NAME_ID: NAME >="), plan);
+    }
 }
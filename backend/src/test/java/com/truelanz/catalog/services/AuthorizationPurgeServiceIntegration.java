@@ -0,0 +1,102 @@
+package com.truelanz.catalog.services;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.truelanz.catalog.tests.TokenUtil;
+
+//Store jdbc no H2: tabela criada com o esquema distribuído pelo Spring Authorization Server
+@SpringBootTest(properties = "security.authorization-store=jdbc")
+@AutoConfigureMockMvc
+@Transactional
+public class AuthorizationPurgeServiceIntegration {
+
+    @Autowired
+    private AuthorizationPurgeService authorizationPurgeService;
+
+    @Autowired
+    private OAuth2AuthorizationService authorizationService;
+
+    @Autowired
+    private RegisteredClientRepository registeredClientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Integer tables = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'OAUTH2_AUTHORIZATION'", Integer.class);
+        if (tables == 0) {
+            new ResourceDatabasePopulator(new ClassPathResource(
+                "org/springframework/security/oauth2/server/authorization/oauth2-authorization-schema.sql")).execute(dataSource);
+        }
+    }
+
+    @Test // login grava a autorização na tabela e ela é lida de volta pelo valor do token
+    public void loginShouldStoreAuthorizationFindableByAccessToken() throws Exception {
+
+        String token = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+
+        OAuth2Authorization authorization = authorizationService.findByToken(token, OAuth2TokenType.ACCESS_TOKEN);
+
+        Assertions.assertNotNull(authorization);
+        Assertions.assertEquals("maria@gmail.com", authorization.getPrincipalName());
+        Assertions.assertEquals(token, authorization.getAccessToken().getToken().getTokenValue());
+    }
+
+    @Test // purge remove somente autorizações com tokens expirados
+    public void purgeExpiredShouldRemoveOnlyExpiredAuthorizations() throws Exception {
+
+        RegisteredClient client = registeredClientRepository.findByClientId(clientId);
+        Instant issuedAt = Instant.now().minus(2, ChronoUnit.HOURS);
+        OAuth2Authorization expired = OAuth2Authorization.withRegisteredClient(client)
+            .principalName("alex@gmail.com")
+            .authorizationGrantType(new AuthorizationGrantType("password"))
+            .accessToken(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "expired-token",
+                issuedAt, issuedAt.plus(1, ChronoUnit.HOURS)))
+            .build();
+        authorizationService.save(expired);
+        String token = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+
+        int deleted = authorizationPurgeService.purgeExpired();
+
+        Assertions.assertTrue(deleted >= 1);
+        Assertions.assertNull(authorizationService.findById(expired.getId()));
+        Assertions.assertNotNull(authorizationService.findByToken(token, OAuth2TokenType.ACCESS_TOKEN));
+    }
+}
@@ -0,0 +1,115 @@
+package com.truelanz.catalog.services;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.truelanz.catalog.config.CacheConfig;
+import com.truelanz.catalog.dto.CacheStatsDTO;
+import com.truelanz.catalog.dto.CategoryDTO;
+import com.truelanz.catalog.dto.ProductDTO;
+import com.truelanz.catalog.dto.RoleDTO;
+
+//Sem @Transactional: o cache só recebe valores depois do commit
+@SpringBootTest
+public class CacheServiceIntegration {
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long existingId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        existingId = 1L;
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test // segunda leitura do mesmo produto vem do cache
+    public void findByIdShouldHitCacheWhenCalledTwice() {
+
+        long hits = stats(CacheConfig.PRODUCTS).getHitCount();
+
+        ProductDTO first = productService.findById(existingId);
+        ProductDTO second = productService.findById(existingId);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(hits + 1, stats(CacheConfig.PRODUCTS).getHitCount());
+    }
+
+    @Test // update remove somente o produto alterado do cache
+    public void updateShouldEvictProductWhenIdExists() {
+
+        ProductDTO dto = productService.findById(existingId);
+        productService.findById(2L);
+
+        productService.update(existingId, dto);
+
+        Assertions.assertNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(existingId));
+        Assertions.assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(2L));
+    }
+
+    @Test // alterar categoria invalida a lista de categorias e os produtos em cache
+    public void categoryUpdateShouldEvictCategoriesAndProducts() {
+
+        List<CategoryDTO> categories = categoryService.findAll();
+        productService.findById(existingId);
+
+        categoryService.update(categories.get(0).getId(), categories.get(0));
+
+        Assertions.assertNull(cacheManager.getCache(CacheConfig.CATEGORIES).get("all"));
+        Assertions.assertNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(existingId));
+    }
+
+    @Test // login consulta o usuário uma vez; a segunda busca vem do cache
+    public void loadUserByUsernameShouldHitCacheWhenCalledTwice() {
+
+        UserDetails first = userDetailsService.loadUserByUsername("maria@gmail.com");
+        UserDetails second = userDetailsService.loadUserByUsername("maria@gmail.com");
+
+        Assertions.assertSame(first, second);
+        Assertions.assertNotNull(cacheManager.getCache(CacheConfig.USERS).get("maria@gmail.com"));
+    }
+
+    @Test // alterar role invalida todos os usuários em cache
+    public void roleUpdateShouldEvictAllUsers() {
+
+        userDetailsService.loadUserByUsername("maria@gmail.com");
+        RoleDTO role = roleService.findById(1L);
+
+        roleService.update(role.getId(), role);
+
+        Assertions.assertNull(cacheManager.getCache(CacheConfig.USERS).get("maria@gmail.com"));
+    }
+
+    private CacheStatsDTO stats(String name) {
+        return cacheService.stats().stream().filter(x -> x.getName().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,178 @@
+package com.truelanz.catalog.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.truelanz.catalog.config.sql.SqlStatistics;
+import com.truelanz.catalog.dto.EmailDTO;
+import com.truelanz.catalog.entities.OutboxEmail;
+import com.truelanz.catalog.entities.OutboxEmailStatus;
+import com.truelanz.catalog.repositories.OutboxEmailRepository;
+import com.truelanz.catalog.tests.SqlAssertions;
+
+import jakarta.mail.internet.MimeMessage;
+
+//Sem @Transactional: o envio só acontece depois do commit, em outra thread
+@SpringBootTest
+public class EmailOutboxServiceIntegration {
+
+    //SMTP na porta 3025, a mesma do application-test.properties
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+        .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private OutboxEmailPurgeService outboxEmailPurgeService;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Value("${email.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retention}")
+    private Duration retention;
+
+    @BeforeEach
+    void setUp() {
+        outboxEmailRepository.deleteAll();
+    }
+
+    @Test //recuperação de senha grava no outbox e o worker entrega depois do commit; o link não fica no banco
+    public void createRecoverTokenShouldDeliverEmailAsynchronously() throws Exception {
+
+        authService.createRecoverToken(new EmailDTO("maria@gmail.com"));
+
+        Assertions.assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        MimeMessage message = greenMail.getReceivedMessages()[0];
+        Assertions.assertEquals("maria@gmail.com", message.getAllRecipients()[0].toString());
+        Assertions.assertEquals("Recuperação de senha", message.getSubject());
+        Assertions.assertTrue(GreenMailUtil.getBody(message).contains("recover-password/"));
+
+        OutboxEmail email = outboxEmailRepository.findAll().get(0);
+        waitFor(() -> outboxEmailRepository.findById(email.getId()).get().getStatus() == OutboxEmailStatus.SENT);
+        Assertions.assertEquals(1, outboxEmailRepository.findById(email.getId()).get().getAttempts());
+        Assertions.assertNull(outboxEmailRepository.findById(email.getId()).get().getBody());
+    }
+
+    @Test //SMTP fora do ar: o token continua gravado e o email volta para a fila com backoff
+    public void dispatchShouldRetryWhenSmtpIsDown() throws Exception {
+
+        greenMail.stop();
+        authService.createRecoverToken(new EmailDTO("alex@gmail.com"));
+
+        OutboxEmail email = outboxEmailRepository.findAll().get(0);
+        waitFor(() -> outboxEmailRepository.findById(email.getId()).get().getAttempts() == 1);
+        OutboxEmail failed = outboxEmailRepository.findById(email.getId()).get();
+        Assertions.assertEquals(OutboxEmailStatus.PENDING, failed.getStatus());
+        Assertions.assertNotNull(failed.getLastError());
+        Assertions.assertTrue(failed.getNextAttemptAt().isAfter(Instant.now()));
+
+        greenMail.start();
+        failed.setNextAttemptAt(Instant.now());
+        outboxEmailRepository.save(failed);
+        emailOutboxService.dispatch();
+
+        Assertions.assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        waitFor(() -> outboxEmailRepository.findById(email.getId()).get().getStatus() == OutboxEmailStatus.SENT);
+    }
+
+    @Test
+    public void dispatchShouldMarkEmailFailedAfterMaxAttempts() {
+
+        greenMail.stop();
+        OutboxEmail email = new OutboxEmail("alex@gmail.com", "Teste", "Corpo");
+        email.setAttempts(maxAttempts - 1);
+        Long id = outboxEmailRepository.save(email).getId();
+
+        emailOutboxService.dispatch();
+
+        waitFor(() -> outboxEmailRepository.findById(id).get().getStatus() == OutboxEmailStatus.FAILED);
+        Assertions.assertEquals(maxAttempts, outboxEmailRepository.findById(id).get().getAttempts());
+        Assertions.assertNull(outboxEmailRepository.findById(id).get().getBody());
+    }
+
+    @Test //lote finalizado com um SELECT ... IN: nada de um SELECT (merge) por email
+    public void dispatchShouldNotSelectEachEmailWhenFinishingBatch() throws Exception {
+
+        for (int i = 0; i < 5; i++) {
+            outboxEmailRepository.save(new OutboxEmail("alex@gmail.com", "Teste " + i, "Corpo"));
+        }
+
+        SqlStatistics statistics = SqlAssertions.track(() -> Assertions.assertEquals(5, emailOutboxService.dispatch()));
+
+        long selects = statistics.getStatementsBySql().entrySet().stream()
+            .filter(e -> e.getKey().trim().toLowerCase().startsWith("select"))
+            .mapToInt(Map.Entry::getValue)
+            .sum();
+        Assertions.assertEquals(2, selects, statistics.getStatementsBySql().toString()); //claim + recarga do lote
+        Assertions.assertTrue(greenMail.waitForIncomingEmail(5000, 5));
+    }
+
+    @Test //só finalizados há mais de retention; pendentes (mesmo antigos) continuam na fila
+    public void purgeFinishedShouldDeleteOnlyFinishedEmailsOlderThanRetention() {
+
+        Instant old = Instant.now().minus(retention).minusSeconds(60);
+        Long oldSent = saveEmail(OutboxEmailStatus.SENT, old);
+        Long oldFailed = saveEmail(OutboxEmailStatus.FAILED, old);
+        Long oldPending = saveEmail(OutboxEmailStatus.PENDING, Instant.now().plusSeconds(3600));
+        Long recentSent = saveEmail(OutboxEmailStatus.SENT, Instant.now());
+
+        Assertions.assertEquals(2, outboxEmailPurgeService.purgeFinished());
+
+        Assertions.assertFalse(outboxEmailRepository.existsById(oldSent));
+        Assertions.assertFalse(outboxEmailRepository.existsById(oldFailed));
+        Assertions.assertTrue(outboxEmailRepository.existsById(oldPending));
+        Assertions.assertTrue(outboxEmailRepository.existsById(recentSent));
+    }
+
+    @Test //initial-backoff PT30S dobrando a cada tentativa, limitado a max-backoff PT1H
+    public void backoffShouldGrowExponentiallyUpToMaximum() {
+
+        Assertions.assertEquals(Duration.ofSeconds(30), emailOutboxService.backoff(1));
+        Assertions.assertEquals(Duration.ofMinutes(1), emailOutboxService.backoff(2));
+        Assertions.assertEquals(Duration.ofMinutes(4), emailOutboxService.backoff(4));
+        Assertions.assertEquals(Duration.ofHours(1), emailOutboxService.backoff(10));
+        Assertions.assertEquals(Duration.ofHours(1), emailOutboxService.backoff(100));
+    }
+
+    private Long saveEmail(OutboxEmailStatus status, Instant nextAttemptAt) {
+        OutboxEmail email = new OutboxEmail("alex@gmail.com", "Teste", "Corpo");
+        email.setStatus(status);
+        email.setNextAttemptAt(nextAttemptAt);
+        return outboxEmailRepository.save(email).getId();
+    }
+
+    private static void waitFor(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Condition not met in 5s");
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
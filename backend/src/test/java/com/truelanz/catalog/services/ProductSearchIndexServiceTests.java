@@ -0,0 +1,117 @@
+package com.truelanz.catalog.services;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.truelanz.catalog.dto.ProductDTO;
+import com.truelanz.catalog.entities.Category;
+import com.truelanz.catalog.entities.Product;
+import com.truelanz.catalog.repositories.ProductRepository;
+
+@ExtendWith(SpringExtension.class) //Teste de Unidade (component)
+public class ProductSearchIndexServiceTests {
+
+    @InjectMocks
+    private ProductSearchIndexService productSearchIndexService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private List<Product> products;
+
+    @BeforeEach //Executar antes de cada teste
+    void setUp() throws Exception {
+        Category books = new Category(2L, "Livros");
+        Category computers = new Category(3L, "Computadores");
+
+        Product lotr = new Product(1L, "The Lord of the Rings", "Fantasy book", 90.5, "https://img.com/1.png", Instant.now());
+        lotr.getCategories().add(books);
+        Product gamer = new Product(4L, "PC Gamer", "Gamer computer", 1200.0, "https://img.com/4.png", Instant.now());
+        gamer.getCategories().add(computers);
+        Product gamerX = new Product(7L, "PC Gamer X", "Gamer computer", 1350.0, "https://img.com/7.png", Instant.now());
+        gamerX.getCategories().add(computers);
+        products = List.of(lotr, gamer, gamerX);
+
+        ReflectionTestUtils.setField(productSearchIndexService, "enabled", true);
+        ReflectionTestUtils.setField(productSearchIndexService, "maxMemoryMb", 64L);
+
+        Mockito.when(productRepository.searchIdsAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any())).thenReturn(List.of(1L, 4L, 7L));
+        Mockito.when(productRepository.searchProductsWithCategories(ArgumentMatchers.any())).thenReturn(products);
+    }
+
+    @Test
+    public void searchShouldMatchPrefixAndRankExactTermsFirst() {
+        productSearchIndexService.rebuild();
+
+        Page<ProductDTO> result = productSearchIndexService.search("pc gam", List.of(), PageRequest.of(0, 10));
+
+        Assertions.assertEquals(2, result.getTotalElements());
+        Assertions.assertEquals("PC Gamer", result.getContent().get(0).getName());
+    }
+
+    @Test
+    public void searchShouldMatchTermsWithOneTypo() {
+        productSearchIndexService.rebuild();
+
+        Page<ProductDTO> result = productSearchIndexService.search("fantsy", List.of(), PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals(1L, result.getContent().get(0).getId());
+    }
+
+    @Test
+    public void searchShouldMatchCategoryNamesAndFilterByCategory() {
+        productSearchIndexService.rebuild();
+
+        Page<ProductDTO> byCategoryName = productSearchIndexService.search("computadores", List.of(), PageRequest.of(0, 10));
+        Page<ProductDTO> filtered = productSearchIndexService.search("computadores", List.of(2L), PageRequest.of(0, 10));
+
+        Assertions.assertEquals(2, byCategoryName.getTotalElements());
+        Assertions.assertEquals(0, filtered.getTotalElements());
+    }
+
+    @Test
+    public void searchShouldReturnNullWhenSortIsNotSupported() {
+        productSearchIndexService.rebuild();
+
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("imgUrl"));
+
+        Assertions.assertNull(productSearchIndexService.search("gamer", List.of(), pageable));
+    }
+
+    @Test
+    public void putAndRemoveShouldUpdateIndexIncrementally() {
+        productSearchIndexService.rebuild();
+
+        Product phone = new Product(30L, "Phone", "Good Phone", 800d, "https://img.com/img.png", Instant.now());
+        productSearchIndexService.put(phone);
+        Assertions.assertEquals(1, productSearchIndexService.search("phone", List.of(), PageRequest.of(0, 10)).getTotalElements());
+
+        productSearchIndexService.remove(30L);
+        Assertions.assertEquals(0, productSearchIndexService.search("phone", List.of(), PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    public void rebuildShouldDisableIndexWhenMemoryCapIsExceeded() {
+        ReflectionTestUtils.setField(productSearchIndexService, "maxMemoryMb", 0L);
+
+        productSearchIndexService.rebuild();
+
+        Assertions.assertFalse(productSearchIndexService.isReady());
+    }
+}
@@ -1,5 +1,10 @@
 package com.truelanz.catalog.services;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,11 +12,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
+import com.truelanz.catalog.dto.CountMode;
+import com.truelanz.catalog.dto.CursorPageDTO;
+import com.truelanz.catalog.dto.ExportFormat;
+import com.truelanz.catalog.dto.ProductBatchResultDTO;
 import com.truelanz.catalog.dto.ProductDTO;
+import com.truelanz.catalog.entities.Product;
 import com.truelanz.catalog.repositories.ProductRepository;
+import com.truelanz.catalog.services.exceptions.InvalidCursorException;
 import com.truelanz.catalog.services.exceptions.ResourceNotFoundException;
+import com.truelanz.catalog.tests.Factory;
 
 import jakarta.transaction.Transactional;
 
@@ -25,6 +38,12 @@ public class ProductServiceIntegration {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
     private Long existingId;
     private Long nonExistingId;
     private Long countToltalProducts;
@@ -100,4 +119,108 @@ public class ProductServiceIntegration {
         Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());
     }
 
+    @Test // busca filtrada por categorias retorna página, total e todas as categorias de cada produto
+    public void findAllPagedShouldReturnProductsWithCategoriesWhenFilteredByCategory() {
+
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("name"));
+
+        Page<ProductDTO> result = productService.findAllPaged("", "1,2", pageRequest);
+
+        Assertions.assertEquals(3, result.getTotalElements());
+        Assertions.assertEquals("Rails for Dummies", result.getContent().get(0).getName());
+        Assertions.assertEquals("Smart TV", result.getContent().get(1).getName());
+        Assertions.assertEquals(2, result.getContent().get(1).getCategories().size());
+        Assertions.assertEquals("The Lord of the Rings", result.getContent().get(2).getName());
+    }
+
+    @Test // count=none: sem total, hasNext calculado pela linha excedente
+    public void findAllPagedShouldReturnSliceWhenCountIsNone() {
+
+        Slice<ProductDTO> first = productService.findAllPaged("", "0", PageRequest.of(0, 10, Sort.by("name")), CountMode.NONE);
+        Slice<ProductDTO> last = productService.findAllPaged("", "0", PageRequest.of(2, 10, Sort.by("name")), CountMode.NONE);
+
+        Assertions.assertFalse(first instanceof Page);
+        Assertions.assertEquals(10, first.getNumberOfElements());
+        Assertions.assertTrue(first.hasNext());
+        Assertions.assertEquals("Macbook Pro", first.getContent().get(0).getName());
+        Assertions.assertEquals(5, last.getNumberOfElements());
+        Assertions.assertFalse(last.hasNext());
+    }
+
+    @Test // count=estimated: fora do PostgreSQL a estimativa é a contagem exata
+    public void findAllPagedShouldReturnTotalWhenCountIsEstimated() {
+
+        Slice<ProductDTO> result = productService.findAllPaged("", "1,2", PageRequest.of(0, 10), CountMode.ESTIMATED);
+
+        Assertions.assertEquals(3, ((Page<ProductDTO>) result).getTotalElements());
+    }
+
+    @Test // busca além da última página retorna vazio, mas mantém o total
+    public void findAllPagedShouldKeepTotalWhenPageIsBeyondLast() {
+
+        Page<ProductDTO> result = productService.findAllPaged("", "0", PageRequest.of(5, 10));
+
+        Assertions.assertTrue(result.isEmpty());
+        Assertions.assertEquals(countToltalProducts, result.getTotalElements());
+    }
+
+    @Test // findAll por cursor percorre todo o catálogo, ordenado por nome, sem repetir produtos
+    public void findAllPagedByCursorShouldTraverseAllProductsSortedByName() {
+
+        List<String> names = new ArrayList<>();
+        String cursor = "";
+        CursorPageDTO<ProductDTO> result;
+        do {
+            result = productService.findAllPaged("", "0", cursor, 10, false);
+            result.getContent().forEach(p -> names.add(p.getName()));
+            cursor = result.getNextCursor();
+        } while (result.getHasNext());
+
+        Assertions.assertEquals(countToltalProducts, names.size());
+        Assertions.assertEquals("Macbook Pro", names.get(0));
+        Assertions.assertEquals("PC Gamer", names.get(1));
+        Assertions.assertNull(result.getNextCursor());
+        Assertions.assertNull(result.getTotalElements());
+    }
+
+    @Test // findAll por cursor retorna total somente quando solicitado
+    public void findAllPagedByCursorShouldReturnTotalWhenWithCount() {
+
+        CursorPageDTO<ProductDTO> result = productService.findAllPaged("", "0", "", 10, true);
+
+        Assertions.assertEquals(10, result.getContent().size());
+        Assertions.assertTrue(result.getHasNext());
+        Assertions.assertEquals(countToltalProducts, result.getTotalElements());
+    }
+
+    @Test // cursor inválido
+    public void findAllPagedByCursorShouldThrowInvalidCursorExceptionWhenCursorIsInvalid() {
+
+        Assertions.assertThrows(InvalidCursorException.class, () -> {
+            productService.findAllPaged("", "0", "not-a-cursor", 10, false);
+        });
+    }
+
+    @Test //descrição com quebras de linha sai entre aspas em várias linhas no CSV e volta igual na importação
+    public void exportedCsvShouldImportBackWhenDescriptionHasLineBreaks() throws Exception {
+
+        ProductDTO dto = Factory.createProductDTO();
+        dto.setId(null);
+        dto.setName("Roundtrip Lamp");
+        dto.setDescription("First line\r\nSecond line, with \"quotes\"\nThird line");
+        productService.insert(dto);
+        productRepository.flush(); //Exportação lê por JDBC, sem o flush automático do Hibernate
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        productExportService.export("Roundtrip Lamp", List.of(), ExportFormat.CSV, exported);
+        ProductBatchResultDTO result = productImportService.importCsv(new ByteArrayInputStream(exported.toByteArray()));
+
+        Assertions.assertEquals(1, result.getInserted());
+        Assertions.assertEquals(0, result.getFailed());
+        List<Product> products = productRepository.findAll().stream()
+            .filter(p -> p.getName().equals("Roundtrip Lamp"))
+            .toList();
+        Assertions.assertEquals(2, products.size());
+        products.forEach(p -> Assertions.assertEquals(dto.getDescription(), p.getDescription()));
+    }
 }
@@ -19,6 +19,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.truelanz.catalog.dto.CategoryDTO;
 import com.truelanz.catalog.dto.ProductDTO;
 import com.truelanz.catalog.entities.Category;
 import com.truelanz.catalog.entities.Product;
@@ -42,6 +43,9 @@ public class ProductServiceTests {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductSearchIndexService productSearchIndexService;
+
     private long existingId;
     private long nonExistingId;
     private long dependentId;
@@ -74,7 +78,7 @@ public class ProductServiceTests {
 
         Mockito.when(productRepository.findById(existingId)).thenReturn(Optional.of(product));
         Mockito.when(productRepository.findById(nonExistingId)).thenReturn(Optional.empty());
-        Mockito.when(categoryRepository.findById(existingId)).thenReturn(Optional.of(category));
+        Mockito.when(categoryRepository.findAllById(List.of(existingId))).thenReturn(List.of(category));
 
         Mockito.when(productRepository.getReferenceById(existingId)).thenReturn(product);
         Mockito.when(productRepository.getReferenceById(nonExistingId)).thenThrow(EntityNotFoundException.class);
@@ -147,5 +151,18 @@ public class ProductServiceTests {
             productService.update(nonExistingId, productDto);
         });
     }
-}
 
+    @Test
+    public void updateShouldThrowResourceNotFoundExceptionWithAllMissingIdsWhenCategoriesDoNotExist() {
+
+        productDto.getCategories().add(new CategoryDTO(nonExistingId, "Missing"));
+        productDto.getCategories().add(new CategoryDTO(dependentId, "Missing"));
+        Mockito.when(categoryRepository.findAllById(List.of(existingId, nonExistingId, dependentId))).thenReturn(List.of(category));
+
+        ResourceNotFoundException e = Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            productService.update(existingId, productDto);
+        });
+        Assertions.assertEquals("Category not found: [" + nonExistingId + ", " + dependentId + "]", e.getMessage());
+        Mockito.verify(categoryRepository, Mockito.never()).findById(ArgumentMatchers.any());
+    }
+}
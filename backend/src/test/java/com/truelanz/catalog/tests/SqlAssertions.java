@@ -0,0 +1,41 @@
+package com.truelanz.catalog.tests;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+
+import com.truelanz.catalog.config.sql.SqlStatistics;
+
+// Verifica quantos comandos SQL um trecho executa (MockMvc roda a requisição na mesma thread do teste).
+// Só conta com o monitor de SQL ligado (sql.monitor.enabled) em testes @SpringBootTest
+public class SqlAssertions {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    public static SqlStatistics track(Action action) throws Exception {
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            action.run();
+        } finally {
+            statistics.stop();
+        }
+        return statistics;
+    }
+
+    public static SqlStatistics assertMaxStatements(int max, Action action) throws Exception {
+        SqlStatistics statistics = track(action);
+        Assertions.assertTrue(statistics.getStatements() <= max, "Expected at most " + max + " SQL statements: " + statistics);
+        return statistics;
+    }
+
+    // Nenhum SQL executado mais de uma vez: o padrão de N+1 (um SELECT por linha do resultado)
+    public static SqlStatistics assertNoRepeatedStatements(Action action) throws Exception {
+        SqlStatistics statistics = track(action);
+        Map.Entry<String, Integer> repeated = statistics.getMostRepeated();
+        Assertions.assertTrue(repeated == null || repeated.getValue() == 1, "Repeated SQL statement: " + statistics);
+        return statistics;
+    }
+}
@@ -0,0 +1,88 @@
+package com.truelanz.catalog.util;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//Banco separado: os ids consumidos aqui (mesmo com rollback) mudariam os ids esperados pelos outros testes
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:datagendb")
+public class CatalogDataGeneratorTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void generatorShouldProduceSameDataForSameSeed() {
+        List<String> first = generateAndSnapshot(7L);
+        List<String> second = generateAndSnapshot(7L);
+        List<String> other = generateAndSnapshot(8L);
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertNotEquals(first, other);
+    }
+
+    @Test
+    public void productsShouldConcentrateOnFewCategoriesWhenSkewed() {
+        CatalogDataGenerator generator = new CatalogDataGenerator(jdbcTemplate, 42L, 500);
+        long lastProduct = maxId("tb_product");
+        List<Long> categoryIds = generator.categories(100);
+        generator.products(5_000, categoryIds, 3, 1.1);
+
+        List<Long> perCategory = jdbcTemplate.queryForList("SELECT COUNT(*) FROM tb_product_category "
+            + "WHERE product_id > ? GROUP BY category_id ORDER BY COUNT(*) DESC", Long.class, lastProduct);
+        Long top = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product_category WHERE category_id = ?",
+            Long.class, categoryIds.get(0));
+
+        Assertions.assertEquals(perCategory.get(0), top);
+        Assertions.assertTrue(top > perCategory.get(perCategory.size() / 2) * 20, perCategory.toString());
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product p WHERE NOT EXISTS "
+            + "(SELECT 1 FROM tb_product_category pc WHERE pc.product_id = p.id) AND p.id > ?", Long.class, lastProduct));
+    }
+
+    @Test
+    public void usersShouldGetOperatorRoleAndAdminRatio() {
+        new CatalogDataGenerator(jdbcTemplate, 42L, 500).users(2_000, "{noop}123456", 0.1);
+
+        Long generated = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_user WHERE email LIKE '%@datagen.local'", Long.class);
+        Long operators = countRole("ROLE_OPERATOR");
+        Long admins = countRole("ROLE_ADMIN");
+
+        Assertions.assertEquals(2_000L, generated);
+        Assertions.assertEquals(2_000L, operators);
+        Assertions.assertTrue(admins > 100 && admins < 300, "admins: " + admins);
+    }
+
+    //Nomes, preços e vínculos relativos aos ids gerados: os ids mudam a cada execução, o conteúdo não
+    private List<String> generateAndSnapshot(long seed) {
+        long lastProduct = maxId("tb_product");
+        CatalogDataGenerator generator = new CatalogDataGenerator(jdbcTemplate, seed, 50);
+        List<Long> categoryIds = generator.categories(20);
+        generator.products(300, categoryIds, 3, 1.1);
+        long firstCategory = categoryIds.get(0);
+        long firstProduct = firstIdAfter("tb_product", lastProduct);
+        return jdbcTemplate.query("SELECT p.id, p.name, p.price, pc.category_id FROM tb_product p "
+            + "JOIN tb_product_category pc ON pc.product_id = p.id WHERE p.id >= ? AND pc.category_id >= ? "
+            + "ORDER BY p.id, pc.category_id",
+            (rs, rowNum) -> (rs.getLong(1) - firstProduct) + ";" + rs.getString(2) + ";" + rs.getDouble(3)
+                + ";" + (rs.getLong(4) - firstCategory),
+            firstProduct, firstCategory);
+    }
+
+    private long maxId(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+    }
+
+    private long firstIdAfter(String table, long id) {
+        return jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + table + " WHERE id > ?", Long.class, id);
+    }
+
+    private Long countRole(String authority) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_user_role ur JOIN tb_user u ON u.id = ur.user_id "
+            + "JOIN tb_role r ON r.id = ur.role_id WHERE r.authority = ? AND u.email LIKE '%@datagen.local'",
+            Long.class, authority);
+    }
+}
@@ -0,0 +1,29 @@
+package com.truelanz.catalog.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.truelanz.catalog.entities.Category;
+import com.truelanz.catalog.entities.Product;
+
+//Dados sintéticos dos benchmarks, parecidos com os do import.sql (ids sequenciais, textos curtos)
+public class BenchmarkData {
+
+    public static List<Product> products(int size, int categoriesPerProduct) {
+        List<Category> categories = new ArrayList<>();
+        for (long i = 1; i <= Math.max(categoriesPerProduct, 1); i++) {
+            categories.add(new Category(i, "Category " + i));
+        }
+        List<Product> products = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Product product = new Product(id, "Product " + id, "Description of the product number " + id,
+                100.0 + id, "https://img.com/" + id + ".png", Instant.parse("2023-06-01T10:00:00Z"));
+            for (int c = 0; c < categoriesPerProduct; c++) {
+                product.getCategories().add(categories.get(c));
+            }
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,63 @@
+package com.truelanz.catalog.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+//Compara dois resultados do JMH (-rf json): java -cp target/benchmarks.jar com.truelanz.catalog.benchmarks.CompareResults antes.json depois.json
+//Diferença menor que a soma dos erros (intervalo de 99,9%) aparece como "~": não dá para afirmar que mudou
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <before.json> <after.json>");
+            System.exit(1);
+        }
+        Map<String, JsonNode> before = read(args[0]);
+        Map<String, JsonNode> after = read(args[1]);
+
+        System.out.printf("%-70s %14s %14s %-8s %9s%n", "Benchmark", "Before", "After", "Unit", "Change");
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode old = before.get(entry.getKey());
+            JsonNode metric = entry.getValue().get("primaryMetric");
+            double score = metric.get("score").asDouble();
+            if (old == null) {
+                System.out.printf("%-70s %14s %14.3f %-8s %9s%n", entry.getKey(), "-", score, metric.get("scoreUnit").asText(), "new");
+                continue;
+            }
+            JsonNode oldMetric = old.get("primaryMetric");
+            double oldScore = oldMetric.get("score").asDouble();
+            double error = error(oldMetric) + error(metric);
+            String change = Math.abs(score - oldScore) <= error
+                ? "~"
+                : String.format("%+.1f%%", (score - oldScore) * 100 / oldScore);
+            System.out.printf("%-70s %14.3f %14.3f %-8s %9s%n", entry.getKey(), oldScore, score, metric.get("scoreUnit").asText(), change);
+        }
+    }
+
+    //Chave: classe.método + parâmetros (ex.: PageSerializationBenchmark.serialize size=100)
+    private static Map<String, JsonNode> read(String path) throws IOException {
+        Map<String, JsonNode> result = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(new File(path))) {
+            String name = node.get("benchmark").asText();
+            StringBuilder key = new StringBuilder(name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1));
+            if (node.has("params")) {
+                Map<String, String> params = new TreeMap<>();
+                node.get("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+                params.forEach((param, value) -> key.append(' ').append(param).append('=').append(value));
+            }
+            result.put(key.toString(), node);
+        }
+        return result;
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.get("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
@@ -0,0 +1,98 @@
+package com.truelanz.catalog.benchmarks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+
+import com.truelanz.catalog.config.authorization.CachingJwtDecoder;
+import com.truelanz.catalog.config.authorization.DenylistJwtValidator;
+import com.truelanz.catalog.config.authorization.RotatingJwkSource;
+import com.truelanz.catalog.config.authorization.TokenDenylist;
+
+//Emissão (login) e verificação (toda requisição autenticada) do access token, com o JWK source e os validadores
+//montados como em AuthorizationServerConfig; decodeCached = CachingJwtDecoder com o token já no cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    @Param({"RS256", "ES256"})
+    private String algorithm;
+
+    private RotatingJwkSource jwkSource;
+    private NimbusJwtEncoder jwtEncoder;
+    private JwtDecoder jwtDecoder;
+    private JwtDecoder cachingJwtDecoder;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwkSource = new RotatingJwkSource(algorithm, null, Duration.ofDays(30), Duration.ofDays(1));
+        jwtEncoder = new NimbusJwtEncoder(jwkSource);
+        TokenDenylist tokenDenylist = new TokenDenylist(true, 100_000);
+        NimbusJwtDecoder nimbusJwtDecoder = (NimbusJwtDecoder) OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+        nimbusJwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(),
+            new DenylistJwtValidator(tokenDenylist)));
+        jwtDecoder = nimbusJwtDecoder;
+        cachingJwtDecoder = new CachingJwtDecoder(nimbusJwtDecoder, tokenDenylist, 10_000);
+        token = encode().getTokenValue();
+        cachingJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt encode() {
+        Instant now = Instant.now();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.from(jwkSource.getAlgorithm().getName()))
+            .keyId(jwkSource.currentKeyId())
+            .build();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuer("http://localhost:8080")
+            .subject("myclientid")
+            .audience(List.of("myclientid"))
+            .issuedAt(now)
+            .expiresAt(now.plus(Duration.ofDays(1)))
+            .id(UUID.randomUUID().toString())
+            .claim("authorities", List.of("ROLE_OPERATOR", "ROLE_ADMIN"))
+            .claim("username", "maria@gmail.com")
+            .build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims));
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCached() {
+        return cachingJwtDecoder.decode(token);
+    }
+}
@@ -0,0 +1,70 @@
+package com.truelanz.catalog.benchmarks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import com.truelanz.catalog.config.authorization.PasswordVerifier;
+
+//Verificação de senha do login (CustomPasswordAuthenticationProvider -> PasswordVerifier -> DelegatingPasswordEncoder).
+//strength = security.password.bcrypt-strength; verifier inclui a troca de thread do pool de verificação
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordMatchBenchmark {
+
+    @Param({"4", "10", "12"})
+    private int strength;
+
+    private PasswordEncoder passwordEncoder;
+    private PasswordVerifier passwordVerifier;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        //Mesma montagem do AppConfig.passwordEncoder()
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of(
+            "bcrypt", bcrypt,
+            "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        passwordEncoder = delegating;
+        passwordVerifier = new PasswordVerifier(passwordEncoder, 1, 100, Duration.ofSeconds(30));
+        hash = passwordEncoder.encode("123456");
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordVerifier.shutdown();
+    }
+
+    @Benchmark
+    public boolean encoder() {
+        return passwordEncoder.matches("123456", hash);
+    }
+
+    @Benchmark
+    public boolean verifier() {
+        return passwordVerifier.matches("123456", hash);
+    }
+}
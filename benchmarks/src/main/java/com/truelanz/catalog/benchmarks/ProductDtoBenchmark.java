@@ -0,0 +1,47 @@
+package com.truelanz.catalog.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.truelanz.catalog.dto.ProductDTO;
+import com.truelanz.catalog.entities.Product;
+
+//new ProductDTO(product, categories) para uma página de produtos, como em ProductService.findAllPaged
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductDtoBenchmark {
+
+    @Param({"12", "100", "1000"})
+    private int size;
+
+    @Param({"1", "5"})
+    private int categories;
+
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkData.products(size, categories);
+    }
+
+    @Benchmark
+    public List<ProductDTO> toDto() {
+        return products.stream().map(product -> new ProductDTO(product, product.getCategories())).toList();
+    }
+}
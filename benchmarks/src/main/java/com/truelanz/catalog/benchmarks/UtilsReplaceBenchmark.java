@@ -0,0 +1,51 @@
+package com.truelanz.catalog.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.truelanz.catalog.entities.Product;
+import com.truelanz.catalog.projections.IdProjection;
+import com.truelanz.catalog.util.Utils;
+
+//Utils.replace: reordena as entidades buscadas por id na ordem da página (busca de produtos)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsReplaceBenchmark {
+
+    @Param({"12", "100", "1000"})
+    private int size;
+
+    private List<Product> ordered;
+    private List<Product> unordered;
+
+    @Setup
+    public void setUp() {
+        ordered = BenchmarkData.products(size, 1);
+        unordered = new ArrayList<>(ordered);
+        Collections.shuffle(unordered, new Random(42));
+    }
+
+    @Benchmark
+    public List<? extends IdProjection<Long>> replace() {
+        return Utils.replace(ordered, unordered);
+    }
+}